@@ -5,4 +5,8 @@ public interface BaseEntity<K> {
     K getId();
 
     void setId(K id);
+
+    Long getVersion();
+
+    void setVersion(Long version);
 }
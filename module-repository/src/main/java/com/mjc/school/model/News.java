@@ -18,19 +18,25 @@ import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "news")
+@Table(name = "news", indexes = {
+        @Index(name = "idx_news_create_date_id", columnList = "createDate, id"),
+        @Index(name = "idx_news_author_id", columnList = "author_id")
+})
 @AllArgsConstructor
 @Getter
 @Setter
@@ -40,9 +46,13 @@ import java.util.List;
 @NoArgsConstructor
 public class News implements BaseEntity<Long>, Serializable {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "news_seq")
+    @SequenceGenerator(name = "news_seq", sequenceName = "news_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
     @Column(nullable = false, name = "title", unique = true)
     private String title;
     @Column(nullable = false, name = "content")
@@ -62,7 +72,8 @@ public class News implements BaseEntity<Long>, Serializable {
     private List<Comment> comments = new ArrayList<>();
 
     @ManyToMany(fetch = FetchType.LAZY)
-    @JoinTable(name = "tags_of_news", joinColumns = @JoinColumn(name = "news_id"), inverseJoinColumns = @JoinColumn(name = "tags_id"))
+    @JoinTable(name = "tags_of_news", joinColumns = @JoinColumn(name = "news_id"), inverseJoinColumns = @JoinColumn(name = "tags_id"),
+            indexes = @Index(name = "idx_tags_of_news_tags_id_news_id", columnList = "tags_id, news_id"))
     private List<Tag> tags;
 
     @Override
@@ -0,0 +1,30 @@
+package com.mjc.school.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Read-only view of the full-text search column of {@code news}. Kept apart from {@link News} so that
+ * loading news never drags the tsvector along; queries join it by id only when searching.
+ */
+@Entity
+@Immutable
+@Table(name = "news")
+@Getter
+@NoArgsConstructor
+public class NewsSearchDocument {
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "search_vector", insertable = false, updatable = false,
+            columnDefinition = "tsvector GENERATED ALWAYS AS (setweight(to_tsvector('english', coalesce(title, '')), 'A') || "
+                    + "setweight(to_tsvector('english', coalesce(content, '')), 'B')) STORED")
+    private String searchVector;
+}
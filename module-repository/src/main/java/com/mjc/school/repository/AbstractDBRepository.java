@@ -2,24 +2,52 @@ package com.mjc.school.repository;
 
 
 import com.mjc.school.model.BaseEntity;
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.PostInsertIdentifierGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.beans.factory.annotation.Value;
 
 import javax.persistence.EntityManager;
+import javax.persistence.OptimisticLockException;
 import javax.persistence.PersistenceContext;
 import javax.persistence.PersistenceException;
+import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.StringJoiner;
 
-@SuppressWarnings("unchecked")
+@SuppressWarnings({"unchecked", "rawtypes"})
 public abstract class AbstractDBRepository<T extends BaseEntity<K>, K> implements BaseRepository<T, K> {
     @PersistenceContext
     protected EntityManager entityManager;
 
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
     private final Class<T> entityClass;
     private final Class<K> idClass;
 
@@ -58,21 +86,324 @@ public abstract class AbstractDBRepository<T extends BaseEntity<K>, K> implement
         }
     }
 
+    /**
+     * Same page as {@link #readAll(int, int, String)}, but selected straight into {@code viewClass} through a
+     * constructor expression over {@code attributes}, so no managed entities are built or dirty-checked.
+     */
+    protected <V> List<V> readAllProjected(int page, int size, String sortBy, Class<V> viewClass, String... attributes) {
+        if (page < 0 || size <= 0 || sortBy == null || sortBy.isEmpty()) {
+            throw new IllegalArgumentException("Invalid parameters");
+        }
+        String[] sort = sortBy.split(",");
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<V> criteriaQuery = criteriaBuilder.createQuery(viewClass);
+        Root<T> root = criteriaQuery.from(entityClass);
+        Selection<?>[] selections = Arrays.stream(attributes).map(root::get).toArray(Selection[]::new);
+        criteriaQuery.select(criteriaBuilder.construct(viewClass, selections));
+
+        if (sort.length > 1 && sort[1].equalsIgnoreCase("ASC")) {
+            criteriaQuery.orderBy(criteriaBuilder.asc(root.get(sort[0])));
+        } else {
+            criteriaQuery.orderBy(criteriaBuilder.desc(root.get(sort[0])));
+        }
+        try {
+            return entityManager.createQuery(criteriaQuery).setFirstResult(page * size).setMaxResults(size).getResultList();
+        } catch (PersistenceException e) {
+            throw new PersistenceException("Error reading entities from database", e);
+        }
+    }
+
+    /**
+     * Reads one offset page together with the total number of rows in a single round trip,
+     * using a {@code count(*) over()} window column next to the entity columns.
+     */
+    @Override
+    public PagedResult<T> readPage(int page, int size, String sortBy) {
+        if (page < 0 || size <= 0 || sortBy == null || sortBy.isEmpty()) {
+            throw new IllegalArgumentException("Invalid parameters");
+        }
+        String[] sort = sortBy.split(",");
+        String direction = sort.length > 1 && sort[1].equalsIgnoreCase("ASC") ? "ASC" : "DESC";
+        String sortColumn = columnName(sort[0]);
+        String idColumn = persister().getIdentifierColumnNames()[0];
+        String sql = "SELECT {e.*}, count(*) OVER() AS total_count FROM " + tableName() + " e"
+                + " ORDER BY e." + sortColumn + " " + direction + ", e." + idColumn + " " + direction
+                + " LIMIT :size OFFSET :offset";
+        List<Object[]> rows;
+        try {
+            rows = entityManager.createNativeQuery(sql)
+                    .unwrap(NativeQuery.class)
+                    .addEntity("e", entityClass)
+                    .addScalar("total_count", StandardBasicTypes.LONG)
+                    .setParameter("size", size)
+                    .setParameter("offset", (long) page * size)
+                    .getResultList();
+        } catch (PersistenceException e) {
+            throw new PersistenceException("Error reading entities from database", e);
+        }
+        if (rows.isEmpty()) {
+            return new PagedResult<>(List.of(), page == 0 ? 0 : count());
+        }
+        List<T> content = rows.stream().map(row -> (T) row[0]).toList();
+        return new PagedResult<>(content, (Long) rows.get(0)[1]);
+    }
+
+    /**
+     * Get-or-create by a unique string attribute for a whole list of values: one select for the existing rows,
+     * then, only if some are missing, one multi-row {@code INSERT ... ON CONFLICT DO NOTHING} and one select
+     * to load them. Rows inserted concurrently by another transaction are picked up by that second select
+     * instead of failing on the unique constraint. {@code timestampAttributes} are filled with {@code now()},
+     * since auditing listeners do not run for native inserts. Entities are returned in the order of {@code values}.
+     */
+    protected List<T> readOrCreateByUniqueAttribute(String attribute, Collection<String> values, String... timestampAttributes) {
+        List<String> distinctValues = values.stream().distinct().toList();
+        if (distinctValues.isEmpty()) {
+            return List.of();
+        }
+        Map<String, T> found = readByAttributeIn(attribute, distinctValues);
+        List<String> missing = distinctValues.stream().filter(value -> !found.containsKey(value)).toList();
+        if (!missing.isEmpty()) {
+            IdentifierGenerator idGenerator = persister().getIdentifierGenerator();
+            boolean assignIds = !(idGenerator instanceof PostInsertIdentifierGenerator);
+            int parametersPerRow = assignIds ? 2 : 1;
+            StringBuilder columns = new StringBuilder(columnName(attribute));
+            StringBuilder generated = new StringBuilder();
+            for (String timestampAttribute : timestampAttributes) {
+                columns.append(", ").append(columnName(timestampAttribute));
+                generated.append(", now()");
+            }
+            if (assignIds) {
+                columns.append(", ").append(persister().getIdentifierColumnNames()[0]);
+            }
+            StringJoiner rows = new StringJoiner(", ");
+            for (int i = 0; i < missing.size(); i++) {
+                int parameter = i * parametersPerRow + 1;
+                rows.add("(?" + parameter + generated + (assignIds ? ", ?" + (parameter + 1) : "") + ")");
+            }
+            Query insert = entityManager.createNativeQuery("INSERT INTO " + tableName() + " (" + columns + ") VALUES " + rows
+                    + " ON CONFLICT (" + columnName(attribute) + ") DO NOTHING");
+            SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+            for (int i = 0; i < missing.size(); i++) {
+                int parameter = i * parametersPerRow + 1;
+                insert.setParameter(parameter, missing.get(i));
+                if (assignIds) {
+                    // ids come from the entity's own pooled sequence so they never collide with persist()
+                    insert.setParameter(parameter + 1, idGenerator.generate(session, null));
+                }
+            }
+            // without a declared query space Hibernate would evict every second-level cache region
+            insert.unwrap(NativeQuery.class).addSynchronizedEntityClass(entityClass).executeUpdate();
+            found.putAll(readByAttributeIn(attribute, missing));
+        }
+        return distinctValues.stream().map(found::get).toList();
+    }
+
+    private Map<String, T> readByAttributeIn(String attribute, Collection<String> values) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> criteriaQuery = criteriaBuilder.createQuery(entityClass);
+        Root<T> root = criteriaQuery.from(entityClass);
+        criteriaQuery.select(root).where(root.get(attribute).in(values));
+        Map<String, T> result = new HashMap<>();
+        for (T entity : entityManager.createQuery(criteriaQuery).getResultList()) {
+            result.put((String) readAttribute(entity, attribute), entity);
+        }
+        return result;
+    }
+
+    protected String tableName() {
+        return persister().getTableName();
+    }
+
+    protected String columnName(String attribute) {
+        try {
+            return persister().getPropertyColumnNames(attribute)[0];
+        } catch (HibernateException e) {
+            throw new IllegalArgumentException("Unknown attribute: " + attribute, e);
+        }
+    }
+
+    private AbstractEntityPersister persister() {
+        return (AbstractEntityPersister) entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class).getMetamodel().entityPersister(entityClass);
+    }
+
+    public long count() {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> criteriaQuery = criteriaBuilder.createQuery(Long.class);
+        criteriaQuery.select(criteriaBuilder.count(criteriaQuery.from(entityClass)));
+        return entityManager.createQuery(criteriaQuery).getSingleResult();
+    }
+
+    /**
+     * Keyset (seek) variant of {@link #readAll(int, int, String)}: instead of skipping {@code page * size} rows
+     * it continues right after the row encoded in {@code after}, ordering by the sort key and then by id.
+     * A {@code null} or blank cursor starts from the first row. Rows with a {@code null} sort key come in
+     * PostgreSQL's default order, last when ascending and first when descending, which the seek follows
+     * so that the order can still be read from an index on the sort key.
+     */
+    @Override
+    public KeysetPage<T> readAllAfter(String after, int size, String sortBy) {
+        if (size <= 0 || sortBy == null || sortBy.isEmpty()) {
+            throw new IllegalArgumentException("Invalid parameters");
+        }
+        String[] sort = sortBy.split(",");
+        boolean ascending = sort.length > 1 && sort[1].equalsIgnoreCase("ASC");
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> criteriaQuery = criteriaBuilder.createQuery(entityClass);
+        Root<T> root = criteriaQuery.from(entityClass);
+        Path<Comparable> sortPath = root.get(sort[0]);
+        Path<Comparable> idPath = root.get("id");
+
+        criteriaQuery.select(root);
+        if (after != null && !after.isBlank()) {
+            KeysetCursor cursor = KeysetCursor.decode(after);
+            Comparable idValue = parseCursorValue(cursor.id(), idClass);
+            Predicate seek;
+            if (cursor.sortValue() == null) {
+                Predicate sameKey = criteriaBuilder.and(criteriaBuilder.isNull(sortPath), ascending
+                        ? criteriaBuilder.greaterThan(idPath, idValue)
+                        : criteriaBuilder.lessThan(idPath, idValue));
+                seek = ascending ? sameKey : criteriaBuilder.or(sameKey, criteriaBuilder.isNotNull(sortPath));
+            } else {
+                Comparable sortValue = parseCursorValue(cursor.sortValue(), sortPath.getJavaType());
+                if (ascending) {
+                    seek = criteriaBuilder.or(criteriaBuilder.greaterThan(sortPath, sortValue),
+                            criteriaBuilder.and(criteriaBuilder.equal(sortPath, sortValue), criteriaBuilder.greaterThan(idPath, idValue)),
+                            criteriaBuilder.isNull(sortPath));
+                } else {
+                    seek = criteriaBuilder.or(criteriaBuilder.lessThan(sortPath, sortValue),
+                            criteriaBuilder.and(criteriaBuilder.equal(sortPath, sortValue), criteriaBuilder.lessThan(idPath, idValue)));
+                }
+            }
+            criteriaQuery.where(seek);
+        }
+        if (ascending) {
+            criteriaQuery.orderBy(criteriaBuilder.asc(sortPath), criteriaBuilder.asc(idPath));
+        } else {
+            criteriaQuery.orderBy(criteriaBuilder.desc(sortPath), criteriaBuilder.desc(idPath));
+        }
+        List<T> content;
+        try {
+            content = entityManager.createQuery(criteriaQuery).setMaxResults(size + 1).getResultList();
+        } catch (PersistenceException e) {
+            throw new PersistenceException("Error reading entities from database", e);
+        }
+        if (content.size() <= size) {
+            return new KeysetPage<>(content, null);
+        }
+        content = content.subList(0, size);
+        T last = content.get(size - 1);
+        Object lastSortValue = readAttribute(last, sort[0]);
+        String nextCursor = new KeysetCursor(String.valueOf(last.getId()),
+                lastSortValue == null ? null : String.valueOf(lastSortValue)).encode();
+        return new KeysetPage<>(content, nextCursor);
+    }
+
+    private Object readAttribute(T entity, String attributeName) {
+        Member member = entityManager.getMetamodel().entity(entityClass).getAttribute(attributeName).getJavaMember();
+        try {
+            if (member instanceof Field field) {
+                field.setAccessible(true);
+                return field.get(entity);
+            }
+            return ((Method) member).invoke(entity);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot read attribute " + attributeName, e);
+        }
+    }
+
+    private static Comparable parseCursorValue(String value, Class<?> type) {
+        try {
+            if (type == Long.class || type == long.class) {
+                return Long.valueOf(value);
+            }
+            if (type == Integer.class || type == int.class) {
+                return Integer.valueOf(value);
+            }
+            if (type == LocalDateTime.class) {
+                return LocalDateTime.parse(value);
+            }
+            if (type == String.class) {
+                return value;
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor value: " + value, e);
+        }
+        throw new IllegalArgumentException("Sorting by " + type.getSimpleName() + " is not supported with cursor");
+    }
+
     @Override
     public Optional<T> readById(K id) {
         return Optional.ofNullable(entityManager.find(entityClass, id));
     }
 
 
+    /**
+     * Rows whose {@code attribute} contains {@code fragment} ignoring case, or is trigram-similar to it, most
+     * similar first. Both conditions are answered by a pg_trgm GIN index on the column (db/trigram.sql)
+     * instead of a sequential scan.
+     */
+    protected List<T> readByTrigramMatch(String attribute, String fragment, int page, int size) {
+        if (fragment == null || fragment.isBlank() || page < 0 || size <= 0) {
+            throw new IllegalArgumentException("Invalid parameters");
+        }
+        String column = "e." + columnName(attribute);
+        String idColumn = "e." + persister().getIdentifierColumnNames()[0];
+        String pattern = "%" + fragment.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return entityManager.createNativeQuery("SELECT {e.*} FROM " + tableName() + " e WHERE " + column + " ILIKE :pattern OR "
+                        + column + " % :term ORDER BY similarity(" + column + ", :term) DESC, " + idColumn)
+                .unwrap(NativeQuery.class)
+                .addEntity("e", entityClass)
+                .setParameter("pattern", pattern)
+                .setParameter("term", fragment)
+                .setFirstResult(page * size)
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    /**
+     * Loads an entity by its {@code @NaturalId}. For entities marked {@code @NaturalIdCache} the id is resolved
+     * from the second-level cache, so repeated lookups of the same value do not reach the database.
+     */
+    protected Optional<T> readByNaturalId(Object value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(entityClass).loadOptional(value);
+    }
+
     @Override
     public T create(T entity) {
         entityManager.persist(entity);
         return entity;
     }
 
+    /**
+     * Persists entities in chunks of the JDBC batch size, flushing and clearing the persistence context
+     * after each chunk so that bulk loads are sent as batched inserts and do not grow the heap.
+     * Entities of the caller are detached afterwards.
+     */
+    @Override
+    public List<T> createAll(List<T> entities) {
+        for (int i = 0; i < entities.size(); i++) {
+            entityManager.persist(entities.get(i));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return entities;
+    }
+
     @Override
     public T update(T entity) {
         T existingEntity = entityManager.find(entityClass, entity.getId());
+        // A version on the incoming state is the one the caller last read; reject the write if it is stale.
+        if (entity.getVersion() != null && !entity.getVersion().equals(existingEntity.getVersion())) {
+            throw new OptimisticLockException(existingEntity);
+        }
         update(existingEntity, entity);
         entityManager.flush();
         return existingEntity;
@@ -9,10 +9,16 @@ public interface BaseRepository<T extends BaseEntity<K>, K> {
 
     List<T> readAll(int page, int size, String sortBy);
 
+    KeysetPage<T> readAllAfter(String after, int size, String sortBy);
+
+    PagedResult<T> readPage(int page, int size, String sortBy);
+
     Optional<T> readById(K id);
 
     T create(T entity);
 
+    List<T> createAll(List<T> entities);
+
     T update(T entity);
 
     boolean deleteById(K id);
@@ -0,0 +1,35 @@
+package com.mjc.school.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque "after" token for keyset pagination: the sort key and id of the last row of the previous page.
+ * A {@code null} sort key is encoded as such, not as the text "null".
+ */
+public record KeysetCursor(String id, String sortValue) {
+    private static final String SEPARATOR = ":";
+    private static final String NULL_SORT_VALUE = "!";
+
+    public String encode() {
+        String raw = sortValue == null ? id + NULL_SORT_VALUE : id + SEPARATOR + sortValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+        int separator = raw.indexOf(SEPARATOR);
+        if (separator < 0 && raw.length() > 1 && raw.endsWith(NULL_SORT_VALUE)) {
+            return new KeysetCursor(raw.substring(0, raw.length() - 1), null);
+        }
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        return new KeysetCursor(raw.substring(0, separator), raw.substring(separator + 1));
+    }
+}
@@ -0,0 +1,6 @@
+package com.mjc.school.repository;
+
+import java.util.List;
+
+public record KeysetPage<T>(List<T> content, String nextCursor) {
+}
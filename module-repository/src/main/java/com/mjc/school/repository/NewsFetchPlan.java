@@ -0,0 +1,37 @@
+package com.mjc.school.repository;
+
+/**
+ * Associations of {@code News} that are batch-loaded up front, so mapping a page of news
+ * costs a constant number of queries instead of one lazy select per news item.
+ * Plans are kept separate per use case so each endpoint can be tuned without affecting the others.
+ */
+public enum NewsFetchPlan {
+    /** Paged lists, rendered in full by NewsMapper; the comments of a whole page come in one query. */
+    LIST(true, true, true),
+    /** A single news with everything NewsMapper renders. */
+    DETAIL(true, true, true),
+    /** Search results, rendered like list pages. */
+    SEARCH(true, true, true);
+
+    private final boolean author;
+    private final boolean tags;
+    private final boolean comments;
+
+    NewsFetchPlan(boolean author, boolean tags, boolean comments) {
+        this.author = author;
+        this.tags = tags;
+        this.comments = comments;
+    }
+
+    public boolean fetchAuthor() {
+        return author;
+    }
+
+    public boolean fetchTags() {
+        return tags;
+    }
+
+    public boolean fetchComments() {
+        return comments;
+    }
+}
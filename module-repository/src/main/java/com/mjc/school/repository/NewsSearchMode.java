@@ -0,0 +1,16 @@
+package com.mjc.school.repository;
+
+/**
+ * How title and content terms of a news search are matched.
+ */
+public enum NewsSearchMode {
+    /** Substring match with {@code LIKE '%term%'}; needs no extra schema but scans the table. */
+    LIKE,
+    /** Match against the GIN-indexed {@code news.search_vector}, ordered by {@code ts_rank}. */
+    FULL_TEXT,
+    /**
+     * Answered from the service's in-process index when it is enabled and only title/content are given;
+     * otherwise handled like {@link #LIKE}.
+     */
+    INDEX
+}
@@ -0,0 +1,6 @@
+package com.mjc.school.repository;
+
+import java.util.List;
+
+public record PagedResult<T>(List<T> content, long totalCount) {
+}
@@ -0,0 +1,26 @@
+package com.mjc.school.repository;
+
+import org.hibernate.boot.MetadataBuilder;
+import org.hibernate.boot.spi.MetadataBuilderContributor;
+import org.hibernate.dialect.function.SQLFunctionTemplate;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers the PostgreSQL full-text search operators used by {@link NewsSearchMode#FULL_TEXT}, the
+ * {@code count(*) OVER()} window that lets a criteria page query carry its total count, and the ordered
+ * {@code id:version} list of validator fingerprints, so that they can be called from JPQL and criteria
+ * queries. Enabled through {@code hibernate.metadata_builder_contributor}.
+ */
+public class SearchFunctionsContributor implements MetadataBuilderContributor {
+
+    @Override
+    public void contribute(MetadataBuilder metadataBuilder) {
+        metadataBuilder.applySqlFunction("fts_match", new SQLFunctionTemplate(StandardBasicTypes.BOOLEAN,
+                "(?1 @@ websearch_to_tsquery('english', ?2))"));
+        metadataBuilder.applySqlFunction("fts_rank", new SQLFunctionTemplate(StandardBasicTypes.FLOAT,
+                "ts_rank(?1, websearch_to_tsquery('english', ?2))"));
+        metadataBuilder.applySqlFunction("count_over", new SQLFunctionTemplate(StandardBasicTypes.LONG, "count(*) over()"));
+        metadataBuilder.applySqlFunction("id_versions", new SQLFunctionTemplate(StandardBasicTypes.STRING,
+                "string_agg(?1 || ':' || ?2, ',' ORDER BY ?1)"));
+    }
+}
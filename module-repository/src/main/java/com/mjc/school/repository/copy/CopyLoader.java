@@ -0,0 +1,289 @@
+package com.mjc.school.repository.copy;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.PooledLoOptimizer;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.collection.AbstractCollectionPersister;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceException;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Bulk loader over PostgreSQL {@code COPY ... FROM STDIN} for seed, benchmark and migration data. Rows go
+ * to the server on a plain JDBC connection, never through the persistence context, so nothing is managed,
+ * cached or flushed. Database triggers and column defaults still apply, except that a news load suspends
+ * the author news count trigger and recounts every author once before it commits. The in-memory search
+ * index and service caches see the rows after their next rebuild or expiry.
+ */
+@Component
+@RequiredArgsConstructor
+public class CopyLoader {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int BLOCKS_PER_RESERVATION = 1_000;
+    private static final String SUSPEND_AUTHOR_NEWS_COUNT = "SET LOCAL news.author_count_sync = off";
+    private static final String RECOUNT_AUTHOR_NEWS = "UPDATE author a SET news_count = c.cnt FROM (SELECT au.id, count(n.id) AS cnt"
+            + " FROM author au LEFT JOIN news n ON n.author_id = au.id GROUP BY au.id) c WHERE c.id = a.id AND a.news_count <> c.cnt";
+
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Copies the rows {@code producer} writes into {@code table} as one statement, so either all of them
+     * land or none do. Entity ids should come from {@link #ids(CopyTable)}.
+     */
+    public long copy(CopyTable table, Consumer<RowWriter> producer) {
+        List<String> columns = columns(table);
+        String sql = "COPY " + tableName(table) + " (" + String.join(", ", columns) + ") FROM STDIN (FORMAT csv)";
+        try (Connection connection = dataSource.getConnection()) {
+            return inTransaction(connection, table, () -> {
+                CopyIn copyIn = copyManager(connection).copyIn(sql);
+                try {
+                    RowWriter writer = new RowWriter(copyIn, columns.size() - table.timestampAttributes().size(),
+                            table.timestampAttributes().size(), LocalDateTime.now());
+                    producer.accept(writer);
+                    writer.flush();
+                    return copyIn.endCopy();
+                } finally {
+                    if (copyIn.isActive()) {
+                        copyIn.cancelCopy();
+                    }
+                }
+            });
+        } catch (SQLException | IOException e) {
+            throw new PersistenceException("Error copying rows into " + table, e);
+        }
+    }
+
+    /**
+     * Copies a CSV file whose header line names {@link #columns(CopyTable)} and whose rows carry their own
+     * ids, then moves the table's id sequence past the largest loaded id.
+     */
+    public long copyFromFile(CopyTable table, Path file) {
+        String sql = "COPY " + tableName(table) + " (" + String.join(", ", columns(table)) + ") FROM STDIN (FORMAT csv, HEADER true)";
+        try (Connection connection = dataSource.getConnection();
+             Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return inTransaction(connection, table, () -> {
+                long rows = copyManager(connection).copyIn(sql, reader, BUFFER_SIZE);
+                if (table.collectionRole() == null) {
+                    IdSequence sequence = idSequence(table);
+                    String idColumn = entityPersister(table).getIdentifierColumnNames()[0];
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("SELECT setval('" + sequence.name() + "', GREATEST((SELECT COALESCE(MAX(" + idColumn + "), 0) FROM "
+                                + tableName(table) + ") + " + sequence.increment() + ", nextval('" + sequence.name() + "')), false)");
+                    }
+                }
+                return rows;
+            });
+        } catch (SQLException | IOException e) {
+            throw new PersistenceException("Error copying " + file + " into " + table, e);
+        }
+    }
+
+    /**
+     * Runs one load in its own transaction. Loading news suspends the per-statement news count trigger, which
+     * would otherwise keep the whole load in a transition table, and recounts every author's news at the end.
+     */
+    private long inTransaction(Connection connection, CopyTable table, CopyStep step) throws SQLException, IOException {
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            if (table == CopyTable.NEWS) {
+                statement.execute(SUSPEND_AUTHOR_NEWS_COUNT);
+            }
+            long rows = step.run();
+            if (table == CopyTable.NEWS) {
+                statement.execute(RECOUNT_AUTHOR_NEWS);
+            }
+            connection.commit();
+            return rows;
+        } catch (SQLException | IOException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+
+    /** Column names of {@code table} in the order rows and files must supply them. */
+    public List<String> columns(CopyTable table) {
+        if (table.collectionRole() != null) {
+            AbstractCollectionPersister persister = collectionPersister(table);
+            return List.of(persister.getKeyColumnNames()[0], persister.getElementColumnNames()[0]);
+        }
+        AbstractEntityPersister persister = entityPersister(table);
+        return Stream.concat(table.attributes().stream(), table.timestampAttributes().stream())
+                .map(attribute -> persister.getPropertyColumnNames(attribute)[0])
+                .toList();
+    }
+
+    /** Ids for new rows of {@code table}, reserved from the same sequence Hibernate allocates from. */
+    public Ids ids(CopyTable table) {
+        return new Ids(idSequence(table));
+    }
+
+    private String tableName(CopyTable table) {
+        return table.collectionRole() != null ? collectionPersister(table).getTableName() : entityPersister(table).getTableName();
+    }
+
+    private IdSequence idSequence(CopyTable table) {
+        if (table.collectionRole() != null) {
+            throw new IllegalArgumentException(table + " has no ids of its own");
+        }
+        IdentifierGenerator generator = entityPersister(table).getIdentifierGenerator();
+        if (!(generator instanceof SequenceStyleGenerator sequenceGenerator)) {
+            throw new IllegalArgumentException(table + " does not take ids from a sequence");
+        }
+        DatabaseStructure structure = sequenceGenerator.getDatabaseStructure();
+        return new IdSequence(structure.getName(), structure.getIncrementSize(), sequenceGenerator.getOptimizer() instanceof PooledLoOptimizer);
+    }
+
+    private AbstractEntityPersister entityPersister(CopyTable table) {
+        return (AbstractEntityPersister) sessionFactory().getMetamodel().entityPersister(table.entityClass());
+    }
+
+    private AbstractCollectionPersister collectionPersister(CopyTable table) {
+        return (AbstractCollectionPersister) sessionFactory().getMetamodel().collectionPersister(table.collectionRole());
+    }
+
+    private SessionFactoryImplementor sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+
+    private static CopyManager copyManager(Connection connection) throws SQLException {
+        return connection.unwrap(PGConnection.class).getCopyAPI();
+    }
+
+    private interface CopyStep {
+        long run() throws SQLException, IOException;
+    }
+
+    record IdSequence(String name, int increment, boolean lowValue) {
+    }
+
+    /**
+     * Hands out ids from blocks reserved with {@code nextval}, a thousand blocks per round trip. A block is
+     * read the way Hibernate's optimizer reads it, so ids never collide with entities persisted meanwhile.
+     */
+    public final class Ids {
+        private final IdSequence sequence;
+        private final Deque<Long> reserved = new ArrayDeque<>();
+        private long next = 1;
+        private long last;
+
+        Ids(IdSequence sequence) {
+            this.sequence = sequence;
+        }
+
+        public long next() {
+            if (next > last) {
+                if (reserved.isEmpty()) {
+                    reserve();
+                }
+                long value = reserved.poll();
+                next = sequence.lowValue() ? value : Math.max(1, value - sequence.increment() + 1);
+                last = sequence.lowValue() ? value + sequence.increment() - 1 : value;
+            }
+            return next++;
+        }
+
+        private void reserve() {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet values = statement.executeQuery("SELECT nextval('" + sequence.name() + "') FROM generate_series(1, "
+                         + BLOCKS_PER_RESERVATION + ")")) {
+                while (values.next()) {
+                    reserved.add(values.getLong(1));
+                }
+            } catch (SQLException e) {
+                throw new PersistenceException("Error reserving ids from " + sequence.name(), e);
+            }
+        }
+    }
+
+    /**
+     * Encodes rows as COPY CSV and sends them in 64 KB chunks. Values are the table's attributes in
+     * {@link CopyTable} order; {@code null} is written as SQL NULL.
+     */
+    public static final class RowWriter {
+        private final CopyIn copyIn;
+        private final int width;
+        private final String timestamps;
+        private final StringBuilder buffer = new StringBuilder(BUFFER_SIZE + 1024);
+
+        RowWriter(CopyIn copyIn, int width, int timestampCount, LocalDateTime now) {
+            this.copyIn = copyIn;
+            this.width = width;
+            this.timestamps = ("," + now).repeat(timestampCount);
+        }
+
+        public void row(Object... values) {
+            if (values.length != width) {
+                throw new IllegalArgumentException("Expected " + width + " values but got " + values.length);
+            }
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append(',');
+                }
+                append(values[i]);
+            }
+            buffer.append(timestamps).append('\n');
+            if (buffer.length() >= BUFFER_SIZE) {
+                flush();
+            }
+        }
+
+        private void append(Object value) {
+            if (value == null) {
+                return;
+            }
+            if (value instanceof Number || value instanceof Boolean || value instanceof LocalDateTime) {
+                buffer.append(value);
+                return;
+            }
+            String text = value.toString();
+            buffer.append('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"') {
+                    buffer.append('"');
+                }
+                buffer.append(c);
+            }
+            buffer.append('"');
+        }
+
+        void flush() {
+            if (buffer.length() == 0) {
+                return;
+            }
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            buffer.setLength(0);
+            try {
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+            } catch (SQLException e) {
+                throw new PersistenceException("Error sending rows to COPY", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.mjc.school.repository.copy;
+
+import com.mjc.school.model.Author;
+import com.mjc.school.model.Comment;
+import com.mjc.school.model.News;
+import com.mjc.school.model.Tag;
+
+import java.util.List;
+
+/**
+ * Tables the {@link CopyLoader} can fill, with the entity attributes a row supplies in order. Timestamp
+ * attributes are not part of a row; the loader stamps them with the time the copy started.
+ */
+public enum CopyTable {
+    AUTHOR(Author.class, null, List.of("id", "name"), List.of("createDate", "lastUpdateDate")),
+    TAGS(Tag.class, null, List.of("id", "name"), List.of()),
+    NEWS(News.class, null, List.of("id", "title", "content", "authorModel"), List.of("createDate", "lastUpdateDate")),
+    /** Rows are (news id, tag id). */
+    TAGS_OF_NEWS(News.class, "tags", List.of(), List.of()),
+    COMMENT(Comment.class, null, List.of("id", "content", "newsModel"), List.of("created", "modified"));
+
+    private final Class<?> entityClass;
+    private final String collection;
+    private final List<String> attributes;
+    private final List<String> timestampAttributes;
+
+    CopyTable(Class<?> entityClass, String collection, List<String> attributes, List<String> timestampAttributes) {
+        this.entityClass = entityClass;
+        this.collection = collection;
+        this.attributes = attributes;
+        this.timestampAttributes = timestampAttributes;
+    }
+
+    Class<?> entityClass() {
+        return entityClass;
+    }
+
+    String collectionRole() {
+        return collection == null ? null : entityClass.getName() + "." + collection;
+    }
+
+    List<String> attributes() {
+        return attributes;
+    }
+
+    List<String> timestampAttributes() {
+        return timestampAttributes;
+    }
+}
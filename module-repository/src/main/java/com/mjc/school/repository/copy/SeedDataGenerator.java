@@ -0,0 +1,66 @@
+package com.mjc.school.repository.copy;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Synthetic dataset for benchmarks, generated row by row straight into {@link CopyLoader}. Names and titles
+ * carry their row's id, so repeated runs against the same database stay unique. Each table is one COPY,
+ * loaded parents first so foreign keys are satisfied.
+ */
+@Component
+@RequiredArgsConstructor
+public class SeedDataGenerator {
+    private final CopyLoader copyLoader;
+
+    public void generate(int authorCount, int tagCount, int newsCount, int tagsPerNews, int commentsPerNews) {
+        long[] authorIds = new long[authorCount];
+        CopyLoader.Ids authors = copyLoader.ids(CopyTable.AUTHOR);
+        copyLoader.copy(CopyTable.AUTHOR, rows -> {
+            for (int i = 0; i < authorCount; i++) {
+                authorIds[i] = authors.next();
+                rows.row(authorIds[i], "Author " + authorIds[i]);
+            }
+        });
+
+        long[] tagIds = new long[tagCount];
+        CopyLoader.Ids tags = copyLoader.ids(CopyTable.TAGS);
+        copyLoader.copy(CopyTable.TAGS, rows -> {
+            for (int i = 0; i < tagCount; i++) {
+                tagIds[i] = tags.next();
+                rows.row(tagIds[i], "tag-" + tagIds[i]);
+            }
+        });
+
+        long[] newsIds = new long[newsCount];
+        CopyLoader.Ids news = copyLoader.ids(CopyTable.NEWS);
+        copyLoader.copy(CopyTable.NEWS, rows -> {
+            for (int i = 0; i < newsCount; i++) {
+                newsIds[i] = news.next();
+                rows.row(newsIds[i], "News " + newsIds[i], "Generated content of news " + newsIds[i], authorIds[i % authorCount]);
+            }
+        });
+
+        int linksPerNews = Math.min(tagsPerNews, tagCount);
+        copyLoader.copy(CopyTable.TAGS_OF_NEWS, rows -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (long newsId : newsIds) {
+                int first = random.nextInt(tagCount);
+                for (int t = 0; t < linksPerNews; t++) {
+                    rows.row(newsId, tagIds[(first + t) % tagCount]);
+                }
+            }
+        });
+
+        CopyLoader.Ids comments = copyLoader.ids(CopyTable.COMMENT);
+        copyLoader.copy(CopyTable.COMMENT, rows -> {
+            for (long newsId : newsIds) {
+                for (int c = 0; c < commentsPerNews; c++) {
+                    rows.row(comments.next(), "Generated comment " + c, newsId);
+                }
+            }
+        });
+    }
+}
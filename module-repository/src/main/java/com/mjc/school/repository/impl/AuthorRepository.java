@@ -3,23 +3,87 @@ package com.mjc.school.repository.impl;
 
 import com.mjc.school.model.Author;
 import com.mjc.school.repository.AbstractDBRepository;
+import com.mjc.school.repository.projection.AuthorNewsCountView;
+import com.mjc.school.repository.projection.AuthorView;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
 import org.springframework.stereotype.Repository;
 
-import javax.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public class AuthorRepository extends AbstractDBRepository<Author, Long> {
+    private static final String NEWS_COUNT = "news_count";
+
     @Override
     public List<Author> readAll(int page, int size, String sortBy) {
-        if (sortBy.split(",")[0].equals("newsCount")) {
-            String str = "SELECT a FROM AuthorModel a JOIN a.newsModelListWithId b GROUP BY a ORDER BY COUNT(b)" + sortBy.split(",")[1];
-            return entityManager.createQuery(str).getResultList();
+        if (sortBy != null && sortBy.split(",")[0].equals("newsCount")) {
+            if (page < 0 || size <= 0) {
+                throw new IllegalArgumentException("Invalid parameters");
+            }
+            String[] sort = sortBy.split(",");
+            String direction = sort.length > 1 && sort[1].equalsIgnoreCase("ASC") ? "ASC" : "DESC";
+            return entityManager.createNativeQuery("SELECT {a.*} FROM " + tableName() + " a ORDER BY a." + NEWS_COUNT + " " + direction
+                            + ", a.id " + direction)
+                    .unwrap(NativeQuery.class)
+                    .addEntity("a", Author.class)
+                    .setFirstResult(page * size)
+                    .setMaxResults(size)
+                    .getResultList();
         }
         return super.readAll(page, size, sortBy);
     }
 
+    /**
+     * Authors with the most news first. Reads the {@code news_count} column kept up to date by triggers on
+     * {@code news} (db/author-news-count.sql, applied at startup through {@code spring.sql.init}), so a page is
+     * an index scan instead of a group-by over all news.
+     */
+    public List<AuthorNewsCountView> readRankedByNewsCount(int page, int size) {
+        return readByNewsCount(0, page, size);
+    }
+
+    /**
+     * Distinct authors having at least one news, with their counts, in the same order as the ranking. Served
+     * by the same {@code news_count} column and index, so {@code /news/authors} needs the startup script too.
+     */
+    public List<AuthorNewsCountView> readAuthorsWithNews(int page, int size) {
+        return readByNewsCount(1, page, size);
+    }
+
+    private List<AuthorNewsCountView> readByNewsCount(long minNewsCount, int page, int size) {
+        if (page < 0 || size <= 0) {
+            throw new IllegalArgumentException("Invalid parameters");
+        }
+        List<Object[]> rows = entityManager.createNativeQuery("SELECT a.id AS id, a.name AS name, a." + columnName("createDate")
+                        + " AS create_date, a." + columnName("lastUpdateDate") + " AS last_update_date, a." + NEWS_COUNT + " AS news_count FROM "
+                        + tableName() + " a WHERE a." + NEWS_COUNT + " >= :minNewsCount ORDER BY a." + NEWS_COUNT + " DESC, a.id")
+                .unwrap(NativeQuery.class)
+                .addScalar("id", StandardBasicTypes.LONG)
+                .addScalar("name", StandardBasicTypes.STRING)
+                .addScalar("create_date", StandardBasicTypes.LOCAL_DATE_TIME)
+                .addScalar("last_update_date", StandardBasicTypes.LOCAL_DATE_TIME)
+                .addScalar("news_count", StandardBasicTypes.LONG)
+                .setParameter("minNewsCount", minNewsCount)
+                .setFirstResult(page * size)
+                .setMaxResults(size)
+                .getResultList();
+        return rows.stream()
+                .map(row -> new AuthorNewsCountView((Long) row[0], (String) row[1], (LocalDateTime) row[2], (LocalDateTime) row[3], (Long) row[4]))
+                .toList();
+    }
+
+    public List<AuthorView> readAllViews(int page, int size, String sortBy) {
+        return readAllProjected(page, size, sortBy, AuthorView.class, "id", "name", "createDate", "lastUpdateDate", "version");
+    }
+
+    public List<Author> readOrCreateByNames(Collection<String> names) {
+        return readOrCreateByUniqueAttribute("name", names, "createDate", "lastUpdateDate");
+    }
+
     @Override
     public void update(Author prevState, Author nextState) {
         if (nextState.getName() != null && !nextState.getName().isBlank()) {
@@ -32,11 +96,10 @@ public class AuthorRepository extends AbstractDBRepository<Author, Long> {
     }
 
     public Optional<Author> readAuthorByName(String name) {
-        TypedQuery<Author> typedQuery = entityManager.createQuery("SELECT a FROM Author a WHERE a.name LIKE:name", Author.class).setParameter("name",  name );
-        try {
-            return Optional.of(typedQuery.getSingleResult());
-        } catch (Exception e) {
-            return Optional.empty();
-        }
+        return readByNaturalId(name);
+    }
+
+    public List<Author> searchByName(String fragment, int page, int size) {
+        return readByTrigramMatch("name", fragment, page, size);
     }
 }
\ No newline at end of file
@@ -2,9 +2,11 @@ package com.mjc.school.repository.impl;
 
 import com.mjc.school.model.Comment;
 import com.mjc.school.repository.AbstractDBRepository;
+import com.mjc.school.repository.projection.ValidatorView;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public class CommentRepository extends AbstractDBRepository<Comment, Long> {
@@ -13,6 +15,15 @@ public class CommentRepository extends AbstractDBRepository<Comment, Long> {
         return entityManager.createQuery("SELECT a FROM Comment a INNER JOIN a.newsModel b WHERE b.id=:newsId", Comment.class).setParameter("newsId", newsId).getResultList();
     }
 
+    public Optional<ValidatorView> readValidator(Long id) {
+        return entityManager.createQuery(
+                        "SELECT new com.mjc.school.repository.projection.ValidatorView(a.version, a.modified) FROM Comment a WHERE a.id = :id",
+                        ValidatorView.class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst();
+    }
+
     @Override
     public void update(Comment prevState, Comment nextState) {
         if (nextState.getContent() != null && !nextState.getContent().isBlank()) {
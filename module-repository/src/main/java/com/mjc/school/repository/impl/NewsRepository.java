@@ -2,21 +2,43 @@ package com.mjc.school.repository.impl;
 
 import com.mjc.school.model.Author;
 import com.mjc.school.model.News;
+import com.mjc.school.model.NewsSearchDocument;
 import com.mjc.school.model.Tag;
 import com.mjc.school.repository.AbstractDBRepository;
+import com.mjc.school.repository.NewsFetchPlan;
+import com.mjc.school.repository.NewsSearchMode;
+import com.mjc.school.repository.PagedResult;
+import com.mjc.school.repository.projection.AuthorView;
+import com.mjc.school.repository.projection.CommentView;
+import com.mjc.school.repository.projection.NewsView;
+import com.mjc.school.repository.projection.TagView;
+import com.mjc.school.repository.projection.ValidatorView;
+import org.hibernate.jpa.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
-import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
-import javax.persistence.TypedQuery;
+import javax.persistence.Tuple;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Repository
 public class NewsRepository extends AbstractDBRepository<News, Long> {
@@ -24,35 +46,180 @@ public class NewsRepository extends AbstractDBRepository<News, Long> {
     @PersistenceContext
     private EntityManager entityManager;
 
-    public List<News> readListOfNewsByParams(List<String> tagName, List<Long> tagId, String authorName, String title, String content) {
+    /**
+     * Page of news matching all given filters. Tag filters are correlated {@code EXISTS} subqueries over
+     * {@code tags_of_news}, so the outer query never multiplies news rows and needs no {@code DISTINCT};
+     * the author filter is a single inner join on the many-to-one side. In {@link NewsSearchMode#FULL_TEXT}
+     * title and content terms are matched together against {@code news.search_vector} and results are
+     * ranked by {@code ts_rank} before the requested sorting.
+     */
+    public List<News> readListOfNewsByParams(List<String> tagName, List<Long> tagId, String authorName, String title, String content,
+                                             NewsSearchMode mode, int page, int size, String sortBy) {
+        if (page < 0 || size <= 0 || sortBy == null || sortBy.isEmpty()) {
+            throw new IllegalArgumentException("Invalid parameters");
+        }
+        String[] sort = sortBy.split(",");
         CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
         CriteriaQuery<News> query = criteriaBuilder.createQuery(News.class);
         Root<News> root = query.from(News.class);
+        List<Predicate> predicates = new ArrayList<>();
+        List<Order> orders = new ArrayList<>();
         if (tagName != null && !tagName.isEmpty()) {
-            Join<News, Tag> newsJoinTags = root.join("tags");
-            Predicate tagN = criteriaBuilder.equal(newsJoinTags.get("name"), tagName);
-            query.select(root).where(tagN);
+            predicates.add(criteriaBuilder.exists(tagSubquery(query, root, "name", tagName)));
         }
         if (tagId != null && !tagId.isEmpty()) {
-            Join<News, Tag> newsJoinTags = root.join("tags");
-            Predicate tagI = criteriaBuilder.in(newsJoinTags.get("id")).value(tagId);
-            query.select(root).where(tagI);
+            predicates.add(criteriaBuilder.exists(tagSubquery(query, root, "id", tagId)));
         }
         if (authorName != null) {
             Join<News, Author> newsJoinAuthor = root.join("authorModel");
-            Predicate authorN = criteriaBuilder.equal(newsJoinAuthor.get("name"), authorName);
-            query.select(root).where(authorN);
+            predicates.add(criteriaBuilder.equal(newsJoinAuthor.get("name"), authorName));
         }
-        if (title != null) {
-            Predicate titlePart = criteriaBuilder.like(root.get("title"), "%" + title + "%");
-            query.select(root).where(titlePart);
+        if (mode == NewsSearchMode.FULL_TEXT && (title != null || content != null)) {
+            String terms = Stream.of(title, content).filter(Objects::nonNull).collect(Collectors.joining(" "));
+            Root<NewsSearchDocument> document = query.from(NewsSearchDocument.class);
+            Path<String> searchVector = document.get("searchVector");
+            predicates.add(criteriaBuilder.equal(document.get("id"), root.get("id")));
+            predicates.add(criteriaBuilder.isTrue(criteriaBuilder.function("fts_match", Boolean.class, searchVector, criteriaBuilder.literal(terms))));
+            orders.add(criteriaBuilder.desc(criteriaBuilder.function("fts_rank", Float.class, searchVector, criteriaBuilder.literal(terms))));
+        } else {
+            if (title != null) {
+                predicates.add(criteriaBuilder.like(root.get("title"), "%" + title + "%"));
+            }
+            if (content != null) {
+                predicates.add(criteriaBuilder.like(root.get("content"), "%" + content + "%"));
+            }
         }
-        if (content != null) {
-            Predicate contentPart = criteriaBuilder.like(root.get("content"), "%" + content + "%");
-            query.select(root).where(contentPart);
+        query.select(root).where(predicates.toArray(new Predicate[0]));
+        if (sort.length > 1 && sort[1].equalsIgnoreCase("ASC")) {
+            orders.add(criteriaBuilder.asc(root.get(sort[0])));
+            orders.add(criteriaBuilder.asc(root.get("id")));
+        } else {
+            orders.add(criteriaBuilder.desc(root.get(sort[0])));
+            orders.add(criteriaBuilder.desc(root.get("id")));
+        }
+        query.orderBy(orders);
+        return entityManager.createQuery(query)
+                .setFirstResult(page * size)
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    private Subquery<Long> tagSubquery(CriteriaQuery<News> query, Root<News> root, String attribute, Collection<?> values) {
+        Subquery<Long> subquery = query.subquery(Long.class);
+        Root<News> news = subquery.correlate(root);
+        Join<News, Tag> tags = news.join("tags");
+        return subquery.select(tags.get("id")).where(tags.get(attribute).in(values));
+    }
+
+    /**
+     * Read-only page of news selected as tuples instead of entities: one query for the news rows with
+     * their author and the total count, one for tags and one for comments of the page, like
+     * {@link NewsFetchPlan#LIST}. News without an author are listed with a {@code null} author.
+     */
+    public PagedResult<NewsView> readAllViews(int page, int size, String sortBy) {
+        if (page < 0 || size <= 0 || sortBy == null || sortBy.isEmpty()) {
+            throw new IllegalArgumentException("Invalid parameters");
+        }
+        String[] sort = sortBy.split(",");
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<News> root = query.from(News.class);
+        Join<News, Author> author = root.join("authorModel", JoinType.LEFT);
+        query.multiselect(root.get("id"), root.get("title"), root.get("content"), root.get("createDate"), root.get("lastUpdateDate"),
+                author.get("id"), author.get("name"), author.get("createDate"), author.get("lastUpdateDate"),
+                root.get("version"), author.get("version"), criteriaBuilder.function("count_over", Long.class));
+        if (sort.length > 1 && sort[1].equalsIgnoreCase("ASC")) {
+            query.orderBy(criteriaBuilder.asc(root.get(sort[0])), criteriaBuilder.asc(root.get("id")));
+        } else {
+            query.orderBy(criteriaBuilder.desc(root.get(sort[0])), criteriaBuilder.desc(root.get("id")));
+        }
+        List<Tuple> rows = entityManager.createQuery(query).setFirstResult(page * size).setMaxResults(size).getResultList();
+        if (rows.isEmpty()) {
+            return new PagedResult<>(List.of(), page == 0 ? 0 : countNews());
+        }
+        List<Long> ids = rows.stream().map(row -> row.get(0, Long.class)).toList();
+
+        Map<Long, List<TagView>> tagsByNews = entityManager.createQuery(
+                        "SELECT n.id, t.id, t.name, t.version FROM News n JOIN n.tags t WHERE n.id IN :ids", Tuple.class)
+                .setParameter("ids", ids)
+                .getResultStream()
+                .collect(Collectors.groupingBy(row -> row.get(0, Long.class),
+                        Collectors.mapping(row -> new TagView(row.get(1, Long.class), row.get(2, String.class), row.get(3, Long.class)), Collectors.toList())));
+        Map<Long, List<CommentView>> commentsByNews = entityManager.createQuery(
+                        "SELECT new com.mjc.school.repository.projection.CommentView(c.id, c.content, c.created, c.modified, c.newsModel.id, c.version) "
+                                + "FROM Comment c WHERE c.newsModel.id IN :ids", CommentView.class)
+                .setParameter("ids", ids)
+                .getResultStream()
+                .collect(Collectors.groupingBy(CommentView::newsId));
+
+        List<NewsView> views = rows.stream().map(row -> {
+            Long id = row.get(0, Long.class);
+            AuthorView authorView = row.get(5) == null ? null : new AuthorView(row.get(5, Long.class), row.get(6, String.class),
+                    row.get(7, LocalDateTime.class), row.get(8, LocalDateTime.class), row.get(10, Long.class));
+            return new NewsView(id, row.get(1, String.class), row.get(2, String.class),
+                    row.get(3, LocalDateTime.class), row.get(4, LocalDateTime.class), authorView,
+                    tagsByNews.getOrDefault(id, List.of()), commentsByNews.getOrDefault(id, List.of()), row.get(9, Long.class));
+        }).toList();
+        return new PagedResult<>(views, rows.get(0).get(11, Long.class));
+    }
+
+    public Optional<News> readById(Long id, NewsFetchPlan plan) {
+        Optional<News> news = readById(id);
+        news.ifPresent(value -> fetch(List.of(value), plan));
+        return news;
+    }
+
+    /**
+     * Validator of the detail response of news {@code id}, read in one query without loading the entity.
+     * The fingerprint digests the ids and versions of the author, tags and comments, so a renamed tag or an
+     * edited, added or deleted comment changes it even though the news version stays.
+     */
+    public Optional<ValidatorView> readValidator(Long id) {
+        return entityManager.createQuery("""
+                        SELECT n.version, n.lastUpdateDate, a.id, a.version, a.lastUpdateDate,
+                               (SELECT id_versions(t.id, t.version) FROM News tn JOIN tn.tags t WHERE tn.id = n.id),
+                               (SELECT id_versions(c.id, c.version) FROM Comment c WHERE c.newsModel.id = n.id),
+                               (SELECT MAX(c.modified) FROM Comment c WHERE c.newsModel.id = n.id)
+                        FROM News n LEFT JOIN n.authorModel a WHERE n.id = :id""", Tuple.class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst()
+                .map(row -> {
+                    String author = row.get(2) == null ? "" : row.get(2, Long.class) + ":" + row.get(3, Long.class);
+                    String dependents = ValidatorView.fingerprint(author, Objects.toString(row.get(5, String.class), ""),
+                            Objects.toString(row.get(6, String.class), ""));
+                    LocalDateTime lastModified = Stream.of(row.get(1, LocalDateTime.class), row.get(4, LocalDateTime.class), row.get(7, LocalDateTime.class))
+                            .filter(Objects::nonNull)
+                            .max(LocalDateTime::compareTo)
+                            .orElse(null);
+                    return new ValidatorView(row.get(0, Long.class), dependents, lastModified);
+                });
+    }
+
+    /**
+     * Initializes the associations selected by {@code plan} for already loaded news: one query for
+     * author and tags, one for comments. Two bags are never join-fetched together, which would
+     * multiply rows (or fail with MultipleBagFetchException).
+     */
+    public void fetch(Collection<News> news, NewsFetchPlan plan) {
+        if (news == null || news.isEmpty()) {
+            return;
+        }
+        List<Long> ids = news.stream().map(News::getId).toList();
+        if (plan.fetchAuthor() || plan.fetchTags()) {
+            String fetches = (plan.fetchAuthor() ? " LEFT JOIN FETCH n.authorModel" : "")
+                    + (plan.fetchTags() ? " LEFT JOIN FETCH n.tags" : "");
+            entityManager.createQuery("SELECT DISTINCT n FROM News n" + fetches + " WHERE n.id IN :ids", News.class)
+                    .setParameter("ids", ids)
+                    .setHint(QueryHints.HINT_PASS_DISTINCT_THROUGH, false)
+                    .getResultList();
+        }
+        if (plan.fetchComments()) {
+            entityManager.createQuery("SELECT DISTINCT n FROM News n LEFT JOIN FETCH n.comments WHERE n.id IN :ids", News.class)
+                    .setParameter("ids", ids)
+                    .setHint(QueryHints.HINT_PASS_DISTINCT_THROUGH, false)
+                    .getResultList();
         }
-        TypedQuery<News> result = entityManager.createQuery(query);
-        return result.getResultList();
     }
 
     @Override
@@ -66,12 +233,10 @@ public class NewsRepository extends AbstractDBRepository<News, Long> {
     }
 
     public Optional<News> readNewsByTitle(String title) {
-        TypedQuery<News> typedQuery = entityManager.createQuery("SELECT a FROM News a WHERE a.title LIKE:title", News.class).setParameter("title", title);
-        try {
-            return Optional.of(typedQuery.getSingleResult());
-        } catch (NoResultException e) {
-            return Optional.empty();
-        }
+        return entityManager.createQuery("SELECT a FROM News a WHERE a.title = :title", News.class)
+                .setParameter("title", title)
+                .getResultStream()
+                .findFirst();
     }
 
     @Override
@@ -105,4 +270,64 @@ public class NewsRepository extends AbstractDBRepository<News, Long> {
     public List<News> getAll() {
         return entityManager.createQuery("select n from News n", News.class).getResultList();
     }
+
+    /** Id, title and content of one news, for re-indexing it without loading the entity. */
+    public Optional<Tuple> readSearchDocument(Long id) {
+        return entityManager.createQuery("select n.id, n.title, n.content from News n where n.id = :id", Tuple.class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst();
+    }
+
+    /**
+     * Id, title and content of every news as a forward-only stream, for rebuilding search indexes without
+     * loading entities into the persistence context. Must be consumed inside a transaction and closed.
+     */
+    public Stream<Tuple> streamSearchDocuments() {
+        return entityManager.createQuery("select n.id, n.title, n.content from News n", Tuple.class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, 1000)
+                .getResultStream();
+    }
+
+    /**
+     * All news ordered by id through a forward-only server-side cursor fetching {@code fetchSize} rows at a time.
+     * Must be consumed inside a transaction and closed; callers are expected to {@link #detachAll()} as they go.
+     */
+    public Stream<News> streamAll(int fetchSize) {
+        return entityManager.createQuery("select n from News n order by n.id", News.class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream();
+    }
+
+    public void detachAll() {
+        entityManager.clear();
+    }
+
+    public List<News> readAllByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery("select n from News n where n.id in :ids", News.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    public Set<String> readExistingTitles(Collection<String> titles) {
+        if (titles.isEmpty()) {
+            return new HashSet<>();
+        }
+        return new HashSet<>(entityManager.createQuery("select n.title from News n where n.title in :titles", String.class)
+                .setParameter("titles", titles)
+                .getResultList());
+    }
+
+    public Set<Long> readExistingIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new HashSet<>();
+        }
+        return new HashSet<>(entityManager.createQuery("select n.id from News n where n.id in :ids", Long.class)
+                .setParameter("ids", ids)
+                .getResultList());
+    }
 }
@@ -2,10 +2,10 @@ package com.mjc.school.repository.impl;
 
 import com.mjc.school.model.Tag;
 import com.mjc.school.repository.AbstractDBRepository;
+import com.mjc.school.repository.projection.TagView;
 import org.springframework.stereotype.Repository;
 
-import javax.persistence.NoResultException;
-import javax.persistence.TypedQuery;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,17 +13,24 @@ import java.util.Optional;
 public class TagRepository extends AbstractDBRepository<Tag, Long> {
 
 
+    public List<TagView> readAllViews(int page, int size, String sortBy) {
+        return readAllProjected(page, size, sortBy, TagView.class, "id", "name", "version");
+    }
+
+    public List<Tag> readOrCreateByNames(Collection<String> names) {
+        return readOrCreateByUniqueAttribute("name", names);
+    }
+
     public List<Tag> readListOfTagsByNewsId(Long newsId) {
         return entityManager.createQuery("SELECT a FROM Tag a INNER JOIN a.news b WHERE b.id=:newsId", Tag.class).setParameter("newsId", newsId).getResultList();
     }
 
     public Optional<Tag> readTagByName(String name) {
-        TypedQuery<Tag> result = entityManager.createQuery("SELECT a FROM Tag a WHERE a.name LIKE:name", Tag.class).setParameter("name", "%" + name + "%");
-        try {
-            return Optional.of(result.getSingleResult());
-        } catch (NoResultException e) {
-            return Optional.empty();
-        }
+        return readByNaturalId(name);
+    }
+
+    public List<Tag> searchByName(String fragment, int page, int size) {
+        return readByTrigramMatch("name", fragment, page, size);
     }
 
     @Override
@@ -0,0 +1,6 @@
+package com.mjc.school.repository.projection;
+
+import java.time.LocalDateTime;
+
+public record AuthorNewsCountView(Long id, String name, LocalDateTime createDate, LocalDateTime lastUpdateDate, long newsCount) {
+}
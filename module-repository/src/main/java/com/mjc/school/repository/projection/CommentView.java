@@ -0,0 +1,6 @@
+package com.mjc.school.repository.projection;
+
+import java.time.LocalDateTime;
+
+public record CommentView(Long id, String content, LocalDateTime created, LocalDateTime modified, Long newsId, Long version) {
+}
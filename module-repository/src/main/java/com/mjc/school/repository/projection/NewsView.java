@@ -0,0 +1,16 @@
+package com.mjc.school.repository.projection;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record NewsView(
+        Long id,
+        String title,
+        String content,
+        LocalDateTime createDate,
+        LocalDateTime lastUpdateDate,
+        AuthorView author,
+        List<TagView> tags,
+        List<CommentView> comments,
+        Long version) {
+}
@@ -0,0 +1,4 @@
+package com.mjc.school.repository.projection;
+
+public record TagView(Long id, String name, Long version) {
+}
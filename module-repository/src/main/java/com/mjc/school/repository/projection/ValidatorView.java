@@ -0,0 +1,32 @@
+package com.mjc.school.repository.projection;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+
+/**
+ * What a conditional GET compares: the entity's own version, a fingerprint of the rows embedded in its
+ * response (empty when there are none) and the latest modification time among them.
+ */
+public record ValidatorView(Long version, String dependents, LocalDateTime lastModified) {
+
+    public ValidatorView(Long version, LocalDateTime lastModified) {
+        this(version, "", lastModified);
+    }
+
+    /**
+     * Hex MD5 of the embedded rows, each group listed as comma-separated {@code id:version} pairs in id order.
+     * Any change to the set of rows or to one of their versions gives a different fingerprint.
+     */
+    public static String fingerprint(String author, String tags, String comments) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5")
+                    .digest((author + "|" + tags + "|" + comments).getBytes(StandardCharsets.UTF_8));
+            return String.format("%032x", new BigInteger(1, digest));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+-- Maintained news count per author, used to rank authors without grouping the news table.
+-- Statement-level triggers keep the column exact for every write path, including bulk loads and COPY:
+-- a statement inserting or deleting many news updates each affected author once, not once per row.
+-- Applied at startup through spring.sql.init; every statement is safe to re-run. A bulk loader can skip the
+-- triggers with SET LOCAL news.author_count_sync = off and recount the column before it commits.
+
+-- The column is backfilled once, when it is added; from then on the triggers keep it exact.
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema() AND table_name = 'author' AND column_name = 'news_count') THEN
+        ALTER TABLE author ADD COLUMN news_count bigint NOT NULL DEFAULT 0;
+        UPDATE author a SET news_count = c.cnt
+        FROM (SELECT author_id, count(*) AS cnt FROM news WHERE author_id IS NOT NULL GROUP BY author_id) c
+        WHERE c.author_id = a.id;
+    END IF;
+END;
+$$;
+
+CREATE INDEX IF NOT EXISTS idx_author_news_count_id ON author (news_count DESC, id);
+
+CREATE OR REPLACE FUNCTION author_news_count_sync() RETURNS trigger AS $$
+BEGIN
+    IF current_setting('news.author_count_sync', true) = 'off' THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP = 'INSERT' THEN
+        UPDATE author a SET news_count = a.news_count + c.cnt
+        FROM (SELECT author_id, count(*) AS cnt FROM new_news GROUP BY author_id) c
+        WHERE a.id = c.author_id;
+    ELSIF TG_OP = 'DELETE' THEN
+        UPDATE author a SET news_count = a.news_count - c.cnt
+        FROM (SELECT author_id, count(*) AS cnt FROM old_news GROUP BY author_id) c
+        WHERE a.id = c.author_id;
+    ELSE
+        UPDATE author a SET news_count = a.news_count + c.delta
+        FROM (SELECT author_id, sum(delta) AS delta
+              FROM (SELECT n.author_id, 1 AS delta FROM new_news n JOIN old_news o ON o.id = n.id
+                    WHERE o.author_id IS DISTINCT FROM n.author_id
+                    UNION ALL
+                    SELECT o.author_id, -1 FROM new_news n JOIN old_news o ON o.id = n.id
+                    WHERE o.author_id IS DISTINCT FROM n.author_id) moved
+              GROUP BY author_id) c
+        WHERE a.id = c.author_id AND c.delta <> 0;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS news_author_count_insert_delete ON news;
+DROP TRIGGER IF EXISTS news_author_count_insert ON news;
+CREATE TRIGGER news_author_count_insert AFTER INSERT ON news
+    REFERENCING NEW TABLE AS new_news
+    FOR EACH STATEMENT EXECUTE FUNCTION author_news_count_sync();
+
+DROP TRIGGER IF EXISTS news_author_count_delete ON news;
+CREATE TRIGGER news_author_count_delete AFTER DELETE ON news
+    REFERENCING OLD TABLE AS old_news
+    FOR EACH STATEMENT EXECUTE FUNCTION author_news_count_sync();
+
+-- Transition tables cannot be combined with UPDATE OF author_id, so every news update fires this trigger;
+-- it only touches authors when a statement moved news between them.
+DROP TRIGGER IF EXISTS news_author_count_update ON news;
+CREATE TRIGGER news_author_count_update AFTER UPDATE ON news
+    REFERENCING OLD TABLE AS old_news NEW TABLE AS new_news
+    FOR EACH STATEMENT EXECUTE FUNCTION author_news_count_sync();
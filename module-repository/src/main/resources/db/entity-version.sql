@@ -0,0 +1,7 @@
+-- Optimistic-lock version of every editable entity. Existing rows start at 0; Hibernate bumps the
+-- column on each update and rejects a write whose WHERE version = ? no longer matches.
+
+ALTER TABLE news ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+ALTER TABLE comment ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+ALTER TABLE author ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+ALTER TABLE tags ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
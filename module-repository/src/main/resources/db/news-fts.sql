@@ -0,0 +1,9 @@
+-- Full-text search for news. The generated column is also created by Hibernate's schema update
+-- (see NewsSearchDocument); the GIN index cannot be declared through JPA and is applied here, at startup
+-- through spring.sql.init. Every statement is safe to re-run.
+
+ALTER TABLE news ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+                         setweight(to_tsvector('english', coalesce(content, '')), 'B')) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_news_search_vector ON news USING GIN (search_vector);
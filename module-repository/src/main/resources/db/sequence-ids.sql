@@ -0,0 +1,23 @@
+-- One-off migration for databases created while entity ids used IDENTITY columns.
+-- Hibernate now takes ids from pooled sequences (allocationSize = 50), so each sequence
+-- must start past the current maximum id and the old column defaults must go away.
+
+CREATE SEQUENCE IF NOT EXISTS news_seq INCREMENT BY 50;
+SELECT setval('news_seq', COALESCE((SELECT MAX(id) FROM news), 0) + 50, false);
+ALTER TABLE news ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE news ALTER COLUMN id DROP DEFAULT;
+
+CREATE SEQUENCE IF NOT EXISTS comment_seq INCREMENT BY 50;
+SELECT setval('comment_seq', COALESCE((SELECT MAX(id) FROM comment), 0) + 50, false);
+ALTER TABLE comment ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE comment ALTER COLUMN id DROP DEFAULT;
+
+CREATE SEQUENCE IF NOT EXISTS tags_seq INCREMENT BY 50;
+SELECT setval('tags_seq', COALESCE((SELECT MAX(id) FROM tags), 0) + 50, false);
+ALTER TABLE tags ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE tags ALTER COLUMN id DROP DEFAULT;
+
+CREATE SEQUENCE IF NOT EXISTS author_seq INCREMENT BY 50;
+SELECT setval('author_seq', COALESCE((SELECT MAX(id) FROM author), 0) + 50, false);
+ALTER TABLE author ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE author ALTER COLUMN id DROP DEFAULT;
@@ -0,0 +1,9 @@
+-- Trigram indexes for substring and similarity search. They serve ILIKE '%...%', LIKE '%...%' and the
+-- pg_trgm % operator on these columns. Exact lookups keep using the unique b-tree indexes on the same columns.
+-- Applied at startup through spring.sql.init; every statement is safe to re-run.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_tags_name_trgm ON tags USING GIN (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_author_name_trgm ON author USING GIN (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_news_title_trgm ON news USING GIN (title gin_trgm_ops);
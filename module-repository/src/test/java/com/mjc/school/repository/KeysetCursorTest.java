@@ -0,0 +1,32 @@
+package com.mjc.school.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void decode_ShouldRestoreTheSortValue() {
+        KeysetCursor cursor = new KeysetCursor("12", "2025-01-01T10:00:00");
+
+        assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void decode_ShouldTellANullSortValueFromTheTextNull() {
+        KeysetCursor nullKey = new KeysetCursor("12", null);
+        KeysetCursor textKey = new KeysetCursor("12", "null");
+
+        assertThat(KeysetCursor.decode(nullKey.encode())).isEqualTo(nullKey);
+        assertThat(KeysetCursor.decode(textKey.encode())).isEqualTo(textKey);
+    }
+
+    @Test
+    void decode_ShouldRejectATokenWithoutId() {
+        KeysetCursor cursor = new KeysetCursor("", null);
+
+        assertThatThrownBy(() -> KeysetCursor.decode(cursor.encode())).isInstanceOf(IllegalArgumentException.class);
+    }
+}
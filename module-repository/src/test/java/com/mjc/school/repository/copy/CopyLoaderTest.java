@@ -0,0 +1,123 @@
+package com.mjc.school.repository.copy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.copy.CopyIn;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CopyLoaderTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 2, 10, 30);
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private CopyIn copyIn;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private ResultSet values;
+
+    @InjectMocks
+    private CopyLoader copyLoader;
+
+    @Test
+    void rowWriter_ShouldQuoteTextAndLeaveNullsEmpty() throws Exception {
+        ByteArrayOutputStream sent = captureCopy();
+        CopyLoader.RowWriter writer = new CopyLoader.RowWriter(copyIn, 4, 2, NOW);
+
+        writer.row(7L, "Say \"hi\", then\nleave", null, "");
+        writer.row(8L, "plain", true, NOW);
+        writer.flush();
+
+        assertThat(sent.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "7,\"Say \"\"hi\"\", then\nleave\",,\"\",2024-01-02T10:30,2024-01-02T10:30\n"
+                        + "8,\"plain\",true,2024-01-02T10:30,2024-01-02T10:30,2024-01-02T10:30\n");
+    }
+
+    @Test
+    void rowWriter_ShouldRejectRowsOfTheWrongWidth() {
+        CopyLoader.RowWriter writer = new CopyLoader.RowWriter(copyIn, 2, 0, NOW);
+
+        assertThatThrownBy(() -> writer.row(1L)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rowWriter_ShouldSendFullBuffersBeforeFlush() throws Exception {
+        ByteArrayOutputStream sent = captureCopy();
+        CopyLoader.RowWriter writer = new CopyLoader.RowWriter(copyIn, 1, 0, NOW);
+        String text = "x".repeat(1_000);
+
+        for (int i = 0; i < 100; i++) {
+            writer.row(text);
+        }
+
+        assertThat(sent.size()).isGreaterThan(0).isLessThan(100 * (text.length() + 3));
+        writer.flush();
+        assertThat(sent.size()).isEqualTo(100 * (text.length() + 3));
+    }
+
+    @Test
+    void ids_ShouldReadPooledBlocksFromTheirHighValue() throws Exception {
+        reservedValues(50L, 100L);
+        CopyLoader.Ids ids = copyLoader.new Ids(new CopyLoader.IdSequence("news_seq", 50, false));
+
+        assertThat(LongStream.range(0, 100).map(i -> ids.next()).toArray()).containsExactly(LongStream.rangeClosed(1, 100).toArray());
+        verify(statement).executeQuery("SELECT nextval('news_seq') FROM generate_series(1, 1000)");
+    }
+
+    @Test
+    void ids_ShouldReadPooledLoBlocksFromTheirLowValue() throws Exception {
+        reservedValues(1L, 51L);
+        CopyLoader.Ids ids = copyLoader.new Ids(new CopyLoader.IdSequence("news_seq", 50, true));
+
+        assertThat(LongStream.range(0, 100).map(i -> ids.next()).toArray()).containsExactly(LongStream.rangeClosed(1, 100).toArray());
+    }
+
+    private ByteArrayOutputStream captureCopy() throws Exception {
+        ByteArrayOutputStream sent = new ByteArrayOutputStream();
+        doAnswer(invocation -> {
+            sent.write(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+            return null;
+        }).when(copyIn).writeToCopy(any(byte[].class), anyInt(), anyInt());
+        return sent;
+    }
+
+    private void reservedValues(Long first, Long second) throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(values);
+        when(values.next()).thenReturn(true, true, false);
+        when(values.getLong(1)).thenReturn(first, second);
+    }
+}
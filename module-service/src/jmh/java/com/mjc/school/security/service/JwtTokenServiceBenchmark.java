@@ -0,0 +1,58 @@
+package com.mjc.school.security.service;
+
+import com.mjc.school.model.Role;
+import com.mjc.school.model.User;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token checks done by one authenticated request: the former path parsed the token with jjwt once per
+ * claim it read (subject, then subject and expiry again), the current one verifies it once and, for a
+ * token seen before, only looks it up. Run with {@code gradle :module-service:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenServiceBenchmark {
+    private JwtTokenService jwtTokenService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenService = new JwtTokenService();
+        token = jwtTokenService.generateToken(User.builder()
+                .id(1L)
+                .username("benchmark")
+                .password("pwd")
+                .role(Role.ROLE_USER)
+                .build());
+        jwtTokenService.verify(token);
+    }
+
+    @Benchmark
+    public void parsePerClaim(Blackhole blackhole) {
+        blackhole.consume(jwtTokenService.getClaimsFromToken(token, Claims::getSubject));
+        blackhole.consume(jwtTokenService.getClaimsFromToken(token, Claims::getSubject));
+        blackhole.consume(jwtTokenService.getClaimsFromToken(token, Claims::getExpiration));
+    }
+
+    @Benchmark
+    public JwtClaims verifyOnce() {
+        return jwtTokenService.parseAndVerify(token);
+    }
+
+    @Benchmark
+    public Optional<JwtClaims> verifyCached() {
+        return jwtTokenService.verify(token);
+    }
+}
@@ -5,5 +5,6 @@ public record AuthorDtoResponse(
         Long id,
         String name,
         String createDate,
-        String lastUpdateDate) {
+        String lastUpdateDate,
+        Long version) {
 }
\ No newline at end of file
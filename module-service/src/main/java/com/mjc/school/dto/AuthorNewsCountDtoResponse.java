@@ -0,0 +1,9 @@
+package com.mjc.school.dto;
+
+public record AuthorNewsCountDtoResponse(
+        Long id,
+        String name,
+        String createDate,
+        String lastUpdateDate,
+        long newsCount) {
+}
@@ -0,0 +1,10 @@
+package com.mjc.school.dto;
+
+public record CacheStatsDtoResponse(
+        String name,
+        long size,
+        long hits,
+        long misses,
+        double hitRate,
+        long evictions) {
+}
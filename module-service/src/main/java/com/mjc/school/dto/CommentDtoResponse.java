@@ -6,6 +6,7 @@ public record CommentDtoResponse(
         String content,
         String created,
         String modified,
-        Long newsId) {
+        Long newsId,
+        Long version) {
 }
 
@@ -0,0 +1,7 @@
+package com.mjc.school.dto;
+
+import java.util.List;
+
+public record CursorPageDtoResponse<R>(List<R> content, String nextCursor) {
+
+}
@@ -0,0 +1,6 @@
+package com.mjc.school.dto;
+
+public record ImportErrorDtoResponse(
+        long line,
+        String message) {
+}
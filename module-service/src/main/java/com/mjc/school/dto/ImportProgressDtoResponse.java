@@ -0,0 +1,11 @@
+package com.mjc.school.dto;
+
+import java.util.List;
+
+public record ImportProgressDtoResponse(
+        long processed,
+        long imported,
+        long failed,
+        List<ImportErrorDtoResponse> errors,
+        boolean done) {
+}
@@ -11,7 +11,8 @@ public record NewsDtoResponse(
         String lastUpdateDate,
         AuthorDtoResponse authorDtoResponse,
         List<TagDtoResponse> tagList,
-        List<CommentDtoResponse> commentList) {
+        List<CommentDtoResponse> commentList,
+        Long version) {
 
 
 }
\ No newline at end of file
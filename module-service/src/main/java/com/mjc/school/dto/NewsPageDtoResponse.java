@@ -2,6 +2,9 @@ package com.mjc.school.dto;
 
 import java.util.List;
 
-public record NewsPageDtoResponse(List<NewsDtoResponse> newsList, long totalNewsCount) {
+public record NewsPageDtoResponse(List<NewsDtoResponse> newsList, long totalNewsCount, String nextCursor) {
 
+    public NewsPageDtoResponse(List<NewsDtoResponse> newsList, long totalNewsCount) {
+        this(newsList, totalNewsCount, null);
+    }
 }
@@ -2,6 +2,7 @@ package com.mjc.school.dto;
 
 public record TagDtoResponse(
         Long id,
-        String name) {
+        String name,
+        Long version) {
 
 }
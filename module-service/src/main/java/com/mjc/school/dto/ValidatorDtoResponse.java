@@ -0,0 +1,8 @@
+package com.mjc.school.dto;
+
+import java.time.Instant;
+
+public record ValidatorDtoResponse(
+        String eTag,
+        Instant lastModified) {
+}
@@ -2,6 +2,7 @@ package com.mjc.school.exception;
 
 public class ElementNotFoundException extends RuntimeException {
     public ElementNotFoundException(String message) {
-        super(message);
+        // Thrown for every unknown id a client asks for; the stack trace would cost more than the lookup.
+        super(message, null, false, false);
     }
-}
+}
\ No newline at end of file
@@ -12,6 +12,7 @@ public enum ErrorCodes {
     NO_TAGS_FOR_NEWS_ID("40406", "Tags for news id: %d do not exist."),
     NO_COMMENTS_FOR_NEWS_ID("40407", "Comments for news id: %d do not exist."),
     INVALID_VALUE_OF_SORTING("40408", "Value of the sortBy is wrong"),
+    NO_CACHE_WITH_PROVIDED_NAME("40409", "Cache with this name: %s does not exist."),
     VALIDATION("40001", "Validation failed: %s."),
     UNEXPECTED_ERROR("00002", "Unexpected error happened on server"),
     NOT_UNIQUE_AUTHOR_NAME("00003", "Name of author does not unique."),
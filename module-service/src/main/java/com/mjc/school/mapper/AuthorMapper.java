@@ -3,6 +3,9 @@ package com.mjc.school.mapper;
 import com.mjc.school.model.Author;
 import com.mjc.school.dto.AuthorDtoRequest;
 import com.mjc.school.dto.AuthorDtoResponse;
+import com.mjc.school.dto.AuthorNewsCountDtoResponse;
+import com.mjc.school.repository.projection.AuthorNewsCountView;
+import com.mjc.school.repository.projection.AuthorView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
@@ -15,7 +18,8 @@ public interface AuthorMapper {
     @Mappings(value = {@Mapping(target = "createDate", ignore = true),
             @Mapping(target = "lastUpdateDate", ignore = true),
             @Mapping(target = "newsModelListWithId", ignore = true),
-            @Mapping(target = "id", ignore = true)})
+            @Mapping(target = "id", ignore = true),
+            @Mapping(target = "version", ignore = true)})
     Author DtoAuthorToModel(AuthorDtoRequest authorDtoRequest);
 
     @Mapping(target = "createDate", expression = "java(authorModel.getCreateDate().format(java.time.format.DateTimeFormatter.ISO_DATE_TIME))")
@@ -24,4 +28,21 @@ public interface AuthorMapper {
 
     List<AuthorDtoResponse> ModelListToDtoList(List<Author> modelList);
 
+    default AuthorDtoResponse ViewAuthorToDTO(AuthorView authorView) {
+        return new AuthorDtoResponse(authorView.id(), authorView.name(),
+                authorView.createDate().format(java.time.format.DateTimeFormatter.ISO_DATE_TIME),
+                authorView.lastUpdateDate().format(java.time.format.DateTimeFormatter.ISO_DATE_TIME), authorView.version());
+    }
+
+    List<AuthorDtoResponse> ViewListToDtoList(List<AuthorView> viewList);
+
+    default AuthorNewsCountDtoResponse ViewNewsCountToDTO(AuthorNewsCountView view) {
+        return new AuthorNewsCountDtoResponse(view.id(), view.name(),
+                view.createDate().format(java.time.format.DateTimeFormatter.ISO_DATE_TIME),
+                view.lastUpdateDate().format(java.time.format.DateTimeFormatter.ISO_DATE_TIME),
+                view.newsCount());
+    }
+
+    List<AuthorNewsCountDtoResponse> ViewNewsCountListToDtoList(List<AuthorNewsCountView> viewList);
+
 }
@@ -16,7 +16,8 @@ public abstract class CommentMapper {
     @Mappings(value = {@Mapping(target = "created", ignore = true),
             @Mapping(target = "modified", ignore = true),
             @Mapping(target = "newsModel", ignore = true),
-            @Mapping(target = "id", ignore = true)})
+            @Mapping(target = "id", ignore = true),
+            @Mapping(target = "version", ignore = true)})
     public abstract Comment DtoCommentToModel(CommentDtoRequest commentDtoRequest);
 
     @Mapping(target = "newsId", expression = "java(commentModel.getNewsModel().getId())")
@@ -1,30 +1,30 @@
 package com.mjc.school.mapper;
 
 
-import com.mjc.school.repository.impl.AuthorRepository;
-import com.mjc.school.repository.impl.TagRepository;
 import com.mjc.school.model.News;
 import com.mjc.school.dto.NewsDtoRequest;
 import com.mjc.school.dto.NewsDtoResponse;
-import lombok.AllArgsConstructor;
-import lombok.NoArgsConstructor;
+import com.mjc.school.dto.AuthorDtoResponse;
+import com.mjc.school.dto.CommentDtoResponse;
+import com.mjc.school.dto.TagDtoResponse;
+import com.mjc.school.repository.projection.NewsView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 @Mapper(componentModel = "spring", uses = {TagMapper.class, CommentMapper.class, AuthorMapper.class})
-@AllArgsConstructor
-@NoArgsConstructor
 public abstract class NewsMapper {
-    protected AuthorRepository authorRepository;
-    protected TagRepository tagRepository;
 
     @Mapping(target = "createDate", ignore = true)
     @Mapping(target = "lastUpdateDate", ignore = true)
     @Mapping(target = "id", ignore = true)
-    @Mapping(target = "authorModel", expression = "java(authorRepository.readAuthorByName(newsDtoRequest.authorName()).get())")
-    @Mapping(target = "tags", expression = "java(newsDtoRequest.tagNames().stream().map(name -> tagRepository.readTagByName(name).get()).toList())")
+    @Mapping(target = "authorModel", ignore = true)
+    @Mapping(target = "tags", ignore = true)
+    @Mapping(target = "comments", ignore = true)
+    @Mapping(target = "version", ignore = true)
     public abstract News DTONewsToModel(NewsDtoRequest newsDtoRequest);
 
     @Mapping(source = "tags", target = "tagList")
@@ -36,5 +36,27 @@ public abstract class NewsMapper {
 
     public abstract List<NewsDtoResponse> ModelListToDtoList(List<News> newsModelList);
 
+    public NewsDtoResponse ViewNewsToDTO(NewsView newsView) {
+        AuthorDtoResponse author = newsView.author() == null ? null : new AuthorDtoResponse(newsView.author().id(), newsView.author().name(),
+                format(newsView.author().createDate()), format(newsView.author().lastUpdateDate()), newsView.author().version());
+        List<TagDtoResponse> tags = newsView.tags().stream()
+                .map(tag -> new TagDtoResponse(tag.id(), tag.name(), tag.version()))
+                .toList();
+        List<CommentDtoResponse> comments = newsView.comments().stream()
+                .map(comment -> new CommentDtoResponse(comment.id(), comment.content(),
+                        format(comment.created()), format(comment.modified()), comment.newsId(), comment.version()))
+                .toList();
+        return new NewsDtoResponse(newsView.id(), newsView.title(), newsView.content(),
+                format(newsView.createDate()), format(newsView.lastUpdateDate()), author, tags, comments, newsView.version());
+    }
+
+    public List<NewsDtoResponse> ViewListToDtoList(List<NewsView> newsViews) {
+        return newsViews.stream().map(this::ViewNewsToDTO).toList();
+    }
+
+    private static String format(LocalDateTime dateTime) {
+        return dateTime.format(DateTimeFormatter.ISO_DATE_TIME);
+    }
+
 
 }
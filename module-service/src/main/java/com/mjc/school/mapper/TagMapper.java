@@ -3,6 +3,7 @@ package com.mjc.school.mapper;
 import com.mjc.school.model.Tag;
 import com.mjc.school.dto.TagDtoRequest;
 import com.mjc.school.dto.TagDtoResponse;
+import com.mjc.school.repository.projection.TagView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
@@ -12,10 +13,17 @@ import java.util.List;
 @Mapper(componentModel = "spring")
 public interface TagMapper {
     @Mappings(value = {@Mapping(target = "news", ignore = true),
-            @Mapping(target = "id", ignore = true)})
+            @Mapping(target = "id", ignore = true),
+            @Mapping(target = "version", ignore = true)})
     Tag DtoTagsToModel(TagDtoRequest tagDtoRequest);
 
     List<TagDtoResponse> listModelToDtoList(List<Tag> tags);
 
     TagDtoResponse ModelTagsToDto(Tag tagModel);
+
+    default TagDtoResponse ViewTagToDto(TagView tagView) {
+        return new TagDtoResponse(tagView.id(), tagView.name(), tagView.version());
+    }
+
+    List<TagDtoResponse> viewListToDtoList(List<TagView> tagViews);
 }
@@ -36,6 +36,7 @@ public class SecurityConfiguration {
                 .authorizeRequests()
                 .antMatchers("/swagger-ui/**", "/swagger-resources/*", "/v3/api-docs/**").permitAll()
                 .antMatchers("/sign-in", "/sign-up").permitAll()
+                .antMatchers("/actuator/**", "/api/v1/admin/**").hasAuthority("ROLE_ADMIN")
                 .antMatchers(HttpMethod.GET).permitAll()
                 .antMatchers(HttpMethod.POST).hasAnyAuthority("ROLE_USER", "ROLE_ADMIN")
                 .antMatchers(HttpMethod.PATCH).hasAuthority("ROLE_ADMIN")
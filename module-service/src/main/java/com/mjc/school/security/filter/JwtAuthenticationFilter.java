@@ -1,7 +1,11 @@
 package com.mjc.school.security.filter;
 
+import com.mjc.school.security.service.JwtClaims;
 import com.mjc.school.security.service.JwtTokenService;
+import com.mjc.school.service.cache.CacheConfig;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,12 +20,15 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.constraints.NotNull;
 import java.io.IOException;
+import java.time.Instant;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtTokenService jwtTokenService;
     private final UserDetailsService userService;
+    private final CacheManager cacheManager;
 
     @Override
     protected void doFilterInternal(@NotNull HttpServletRequest request, @NotNull HttpServletResponse response, @NotNull FilterChain filterChain) throws ServletException, IOException {
@@ -31,12 +38,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
         final String jwt = authorizationHeader.substring(7);
-        String username = jwtTokenService.getUsernameFromToken(jwt);
+        Optional<JwtClaims> claims = jwtTokenService.verify(jwt);
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userService.loadUserByUsername(username);
+        if (claims.isPresent() && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = loadUser(claims.get().subject(), claims.get().issuedAt());
 
-            if (jwtTokenService.isTokenValid(jwt, userDetails)) {
+            if (jwtTokenService.isTokenValid(claims.get(), userDetails)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
@@ -45,4 +52,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Users are cached per token, by name and issue time, for {@code cache.user-details.ttl}; saving any
+     * user clears the cache, so a role change applies to the next request.
+     */
+    private UserDetails loadUser(String username, Instant issuedAt) {
+        Cache cache = cacheManager.getCache(CacheConfig.USER_DETAILS);
+        if (cache == null) {
+            return userService.loadUserByUsername(username);
+        }
+        String key = username + "@" + (issuedAt == null ? "" : issuedAt.getEpochSecond());
+        try {
+            return cache.get(key, () -> userService.loadUserByUsername(username));
+        } catch (Cache.ValueRetrievalException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
 }
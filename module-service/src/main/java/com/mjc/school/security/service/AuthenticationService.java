@@ -7,7 +7,9 @@ import com.mjc.school.repository.UserRepository;
 import com.mjc.school.dtoForUser.JwtAuthenticationResponse;
 import com.mjc.school.dtoForUser.SignInRequest;
 import com.mjc.school.dtoForUser.SignUpRequest;
+import com.mjc.school.service.cache.CacheConfig;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -53,6 +55,7 @@ public class AuthenticationService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USER_DETAILS, allEntries = true)
     public void promoteToAdmin(Long id){
         var user = userRepository.findById(id).orElseThrow(()-> new UsernameNotFoundException("User with such id was not found!"));
         user.setRole(Role.ROLE_ADMIN);
@@ -60,6 +63,7 @@ public class AuthenticationService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USER_DETAILS, allEntries = true)
     public User save(User userModel) {
         return userRepository.save(userModel);
     }
@@ -1,15 +1,25 @@
 package com.mjc.school.security.service;
 
+import com.mjc.school.dto.CursorPageDtoResponse;
+
 import java.util.List;
 
 public interface BaseService<T, R, K> {
     List<R> readAll(int page, int size, String sortBy);
 
+    CursorPageDtoResponse<R> readAllAfter(String after, int size, String sortBy);
+
     R readById(K id);
 
     R create(T createRequest);
 
     R update(K id, T updateRequest);
 
+    /**
+     * Applies the update only if the stored entity is still at {@code expectedVersion};
+     * a {@code null} version updates unconditionally.
+     */
+    R update(K id, T updateRequest, Long expectedVersion);
+
     boolean deleteById(K id);
 }
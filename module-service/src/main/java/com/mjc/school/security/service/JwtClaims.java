@@ -0,0 +1,11 @@
+package com.mjc.school.security.service;
+
+import java.time.Instant;
+
+/** Claims of a token whose signature and expiry {@link JwtTokenService#verify(String)} has checked. */
+public record JwtClaims(String subject, Long userId, String role, Instant issuedAt, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
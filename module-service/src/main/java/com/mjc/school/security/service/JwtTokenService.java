@@ -1,5 +1,10 @@
 package com.mjc.school.security.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.mjc.school.model.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -7,34 +12,113 @@ import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.xml.bind.DatatypeConverter;
+import java.io.IOException;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Issues HS256 tokens and verifies them. {@link #verify(String)} checks a token in one pass: one HMAC on a
+ * per-thread {@link Mac} and one JSON read of the payload, instead of a full jjwt parse per claim. A verified
+ * token's claims are kept until the token expires, so a client that reuses its token is verified once.
+ * Cached entries are found by the token's hash and matched on the whole token.
+ */
 @Component
 public class JwtTokenService implements Serializable {
     public static final long JWT_TOKEN_VALIDITY = 60 * 60;
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int VERIFIED_TOKENS_MAX_SIZE = 10_000;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     private final String SECRET_KEY = "secret";
+    private final byte[] keyBytes = DatatypeConverter.parseBase64Binary(SECRET_KEY);
+    private final transient ThreadLocal<Mac> mac = ThreadLocal.withInitial(this::newMac);
+    private final transient Cache<String, JwtClaims> verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(VERIFIED_TOKENS_MAX_SIZE)
+            .expireAfter(new UntilExpiration())
+            .build();
+
+    /** Claims of {@code token}, or empty when it is malformed, not signed with this service's key or expired. */
+    public Optional<JwtClaims> verify(String token) {
+        Instant now = Instant.now();
+        JwtClaims cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            return cached.isExpired(now) ? Optional.empty() : Optional.of(cached);
+        }
+        JwtClaims claims = parseAndVerify(token);
+        if (claims == null || claims.isExpired(now)) {
+            return Optional.empty();
+        }
+        verifiedTokens.put(token, claims);
+        return Optional.of(claims);
+    }
+
+    public boolean isTokenValid(JwtClaims claims, UserDetails userDetails) {
+        return claims.subject().equals(userDetails.getUsername()) && !claims.isExpired(Instant.now());
+    }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return verify(token).map(claims -> isTokenValid(claims, userDetails)).orElse(false);
     }
 
     public String getUsernameFromToken(String token) {
-        return getClaimsFromToken(token, Claims::getSubject);
+        return verify(token).map(JwtClaims::subject).orElse(null);
     }
 
+    /** Whether {@code token} can no longer be used, because it expired or does not verify at all. */
     public Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+        return verify(token).isEmpty();
     }
 
-    private Date getExpirationDateFromToken(String token) {
+    JwtClaims parseAndVerify(String token) {
+        int headerEnd = token.indexOf('.');
+        int payloadEnd = token.indexOf('.', headerEnd + 1);
+        if (headerEnd < 0 || payloadEnd < 0 || token.indexOf('.', payloadEnd + 1) >= 0) {
+            return null;
+        }
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            byte[] signature = decoder.decode(token.substring(payloadEnd + 1));
+            byte[] expected = mac.get().doFinal(token.substring(0, payloadEnd).getBytes(StandardCharsets.US_ASCII));
+            if (!MessageDigest.isEqual(expected, signature)) {
+                return null;
+            }
+            JsonNode header = OBJECT_MAPPER.readTree(decoder.decode(token.substring(0, headerEnd)));
+            JsonNode payload = OBJECT_MAPPER.readTree(decoder.decode(token.substring(headerEnd + 1, payloadEnd)));
+            if (!"HS256".equals(header.path("alg").asText())
+                    || !payload.path("sub").isTextual() || !payload.path("exp").canConvertToLong()) {
+                return null;
+            }
+            return new JwtClaims(payload.get("sub").asText(),
+                    payload.path("id").canConvertToLong() ? payload.get("id").asLong() : null,
+                    payload.path("role").isTextual() ? payload.get("role").asText() : null,
+                    payload.path("iat").canConvertToLong() ? Instant.ofEpochSecond(payload.get("iat").asLong()) : null,
+                    Instant.ofEpochSecond(payload.get("exp").asLong()));
+        } catch (IllegalArgumentException | IOException e) {
+            return null;
+        }
+    }
 
-        return getClaimsFromToken(token, Claims::getExpiration);
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(new SecretKeySpec(keyBytes, ALGORITHM));
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot create " + ALGORITHM, e);
+        }
     }
 
     public <T> T getClaimsFromToken(String token, Function<Claims, T> claimsResolver) {
@@ -43,7 +127,7 @@ public class JwtTokenService implements Serializable {
     }
 
     public Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(token).getBody();
+        return Jwts.parser().setSigningKey(keyBytes).parseClaimsJws(token).getBody();
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -66,9 +150,26 @@ public class JwtTokenService implements Serializable {
                 .setSubject(subject)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(SignatureAlgorithm.HS256, SECRET_KEY)
+                .signWith(SignatureAlgorithm.HS256, keyBytes)
                 .compact();
     }
+
+    private static final class UntilExpiration implements Expiry<String, JwtClaims> {
+        @Override
+        public long expireAfterCreate(String token, JwtClaims claims, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), claims.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, JwtClaims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, JwtClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
 
 
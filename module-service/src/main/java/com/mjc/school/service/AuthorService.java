@@ -2,8 +2,17 @@ package com.mjc.school.service;
 
 import com.mjc.school.dto.AuthorDtoRequest;
 import com.mjc.school.dto.AuthorDtoResponse;
+import com.mjc.school.dto.AuthorNewsCountDtoResponse;
 import com.mjc.school.security.service.BaseService;
 
+import java.util.List;
+
 public interface AuthorService extends BaseService<AuthorDtoRequest, AuthorDtoResponse, Long> {
     AuthorDtoResponse readAuthorByNewsId(Long newsId);
+
+    List<AuthorDtoResponse> searchByName(String fragment, int page, int size);
+
+    List<AuthorNewsCountDtoResponse> readRankedByNewsCount(int page, int size);
+
+    List<AuthorNewsCountDtoResponse> readAuthorsWithNews(int page, int size);
 }
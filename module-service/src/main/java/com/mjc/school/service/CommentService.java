@@ -2,10 +2,13 @@ package com.mjc.school.service;
 
 import com.mjc.school.dto.CommentDtoRequest;
 import com.mjc.school.dto.CommentDtoResponse;
+import com.mjc.school.dto.ValidatorDtoResponse;
 import com.mjc.school.security.service.BaseService;
 
 import java.util.List;
 
 public interface CommentService extends BaseService<CommentDtoRequest, CommentDtoResponse, Long> {
     List<CommentDtoResponse> readListOfCommentsByNewsId(Long newsId);
+
+    ValidatorDtoResponse readValidator(Long id);
 }
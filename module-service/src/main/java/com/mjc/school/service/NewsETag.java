@@ -0,0 +1,41 @@
+package com.mjc.school.service;
+
+import com.mjc.school.dto.AuthorDtoResponse;
+import com.mjc.school.dto.CommentDtoResponse;
+import com.mjc.school.dto.NewsDtoResponse;
+import com.mjc.school.dto.TagDtoResponse;
+import com.mjc.school.repository.projection.ValidatorView;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * ETag of a news detail response: its version, then a fingerprint of the author, tags and comments it
+ * embeds. The same tag comes from the validator row and from a mapped response with the same content, so a
+ * response can carry the tag of exactly the DTO it holds.
+ */
+public final class NewsETag {
+
+    private NewsETag() {
+    }
+
+    public static String of(ValidatorView validator) {
+        return validator.version() + "-" + validator.dependents();
+    }
+
+    public static String of(NewsDtoResponse news) {
+        AuthorDtoResponse author = news.authorDtoResponse();
+        return news.version() + "-" + ValidatorView.fingerprint(author == null ? "" : author.id() + ":" + author.version(),
+                idVersions(news.tagList(), TagDtoResponse::id, TagDtoResponse::version),
+                idVersions(news.commentList(), CommentDtoResponse::id, CommentDtoResponse::version));
+    }
+
+    private static <T> String idVersions(List<T> rows, Function<T, Long> id, Function<T, Long> version) {
+        return rows == null ? "" : rows.stream()
+                .sorted(Comparator.comparing(id))
+                .map(row -> id.apply(row) + ":" + version.apply(row))
+                .collect(Collectors.joining(","));
+    }
+}
@@ -1,18 +1,30 @@
 package com.mjc.school.service;
 
 import com.mjc.school.dto.NewsPageDtoResponse;
+import com.mjc.school.dto.ValidatorDtoResponse;
+import com.mjc.school.repository.NewsSearchMode;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface NewsService<NewsDtoRequest, NewsDtoResponse, Long>{
-    List<NewsDtoResponse> readListOfNewsByParams(List<String> tagName, List<Long> tagId, String authorName, String title, String content);
+    List<NewsDtoResponse> readListOfNewsByParams(List<String> tagName, List<Long> tagId, String authorName, String title, String content,
+                                                 NewsSearchMode mode, int page, int size, String sortBy);
 
     NewsDtoResponse readById(Long id);
 
+    ValidatorDtoResponse readValidator(Long id);
+
     NewsDtoResponse create(NewsDtoRequest createRequest);
 
     NewsDtoResponse update(Long id, NewsDtoRequest updateRequest);
 
+    NewsDtoResponse update(Long id, NewsDtoRequest updateRequest, Long expectedVersion);
+
     boolean deleteById(Long id);
     NewsPageDtoResponse readAll(int page, int size, String sortBy);
+
+    NewsPageDtoResponse readAllAfter(String after, int size, String sortBy);
+
+    void exportAll(Consumer<NewsDtoResponse> consumer);
 }
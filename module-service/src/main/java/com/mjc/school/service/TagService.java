@@ -8,4 +8,6 @@ import java.util.List;
 
 public interface TagService extends BaseService<TagDtoRequest, TagDtoResponse, Long> {
     List<TagDtoResponse> readListOfTagsByNewsId(Long newsId);
+
+    List<TagDtoResponse> searchByName(String fragment, int page, int size);
 }
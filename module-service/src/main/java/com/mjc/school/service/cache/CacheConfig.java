@@ -0,0 +1,121 @@
+package com.mjc.school.service.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mjc.school.model.Author;
+import com.mjc.school.model.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Caffeine-backed caches for service responses. Puts and evictions done inside a transaction are applied
+ * only after it commits, so a rolled-back write never evicts and a reader never caches uncommitted data.
+ * The by-id caches hold mapped DTOs; each write evicts its own entry and the entries embedding it.
+ * Caches filled by read-only transactions drop fills that may predate an eviction, see {@link GuardedFillCache}.
+ * The missing-id caches remember lookups that found nothing, see {@link MissingIds}, and are guarded the
+ * same way, so a miss read before a create forgot its id is not remembered. The user details cache
+ * spares the JWT filter a user query per request and is cleared whenever a user is saved.
+ * Every committed eviction is also sent to the other nodes through {@link CacheInvalidationBus}. The
+ * {@link ExternalCache} names are registered as caches that only publish: a write evicts them to reach
+ * the second-level cache regions, search index and JSON cache of the other nodes.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String AUTHORS_WITH_NEWS = "authorsWithNews";
+    public static final String NEWS_BY_ID = "newsById";
+    public static final String AUTHOR_BY_ID = "authorById";
+    public static final String TAG_BY_ID = "tagById";
+    public static final String COMMENT_BY_ID = "commentById";
+    public static final String MISSING_NEWS = "missingNews";
+    public static final String MISSING_AUTHOR = "missingAuthor";
+    public static final String MISSING_TAG = "missingTag";
+    public static final String USER_DETAILS = "userDetails";
+    public static final String TAG_ENTITY = "tagEntity";
+    public static final String AUTHOR_ENTITY = "authorEntity";
+    public static final String NEWS_SEARCH_INDEX = "newsSearchIndex";
+    public static final String NEWS_JSON = "newsJson";
+
+    private static final List<String> EXTERNAL = List.of(TAG_ENTITY, AUTHOR_ENTITY, NEWS_SEARCH_INDEX, NEWS_JSON);
+
+    private static final List<String> MISSING = List.of(MISSING_NEWS, MISSING_AUTHOR, MISSING_TAG);
+
+    private static final Set<String> GUARDED_FILLS = Set.of(AUTHORS_WITH_NEWS, NEWS_BY_ID, AUTHOR_BY_ID, TAG_BY_ID, COMMENT_BY_ID,
+            MISSING_NEWS, MISSING_AUTHOR, MISSING_TAG);
+
+    @Bean
+    public CacheManager cacheManager(@Value("${cache.authors-with-news.ttl:30s}") Duration authorsWithNewsTtl,
+                                     @Value("${cache.by-id.max-size:10000}") long byIdMaxSize,
+                                     @Value("${cache.by-id.ttl:10m}") Duration byIdTtl,
+                                     @Value("${cache.fill-guard.lag:${replica.read-your-writes.window:5s}}") Duration fillGuardLag,
+                                     @Value("${cache.missing.max-size:100000}") long missingMaxSize,
+                                     @Value("${cache.missing.ttl:1m}") Duration missingTtl,
+                                     @Value("${cache.user-details.max-size:10000}") long userDetailsMaxSize,
+                                     @Value("${cache.user-details.ttl:1m}") Duration userDetailsTtl,
+                                     CacheInvalidationBus cacheInvalidationBus) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(AUTHORS_WITH_NEWS, Caffeine.newBuilder()
+                .maximumSize(1_000)
+                .expireAfterWrite(authorsWithNewsTtl)
+                .recordStats()
+                .build());
+        for (String byId : List.of(NEWS_BY_ID, AUTHOR_BY_ID, TAG_BY_ID, COMMENT_BY_ID)) {
+            cacheManager.registerCustomCache(byId, Caffeine.newBuilder()
+                    .maximumSize(byIdMaxSize)
+                    .expireAfterWrite(byIdTtl)
+                    .recordStats()
+                    .build());
+        }
+        for (String missing : MISSING) {
+            cacheManager.registerCustomCache(missing, Caffeine.newBuilder()
+                    .maximumSize(missingMaxSize)
+                    .expireAfterWrite(missingTtl)
+                    .recordStats()
+                    .build());
+        }
+        cacheManager.registerCustomCache(USER_DETAILS, Caffeine.newBuilder()
+                .maximumSize(userDetailsMaxSize)
+                .expireAfterWrite(userDetailsTtl)
+                .recordStats()
+                .build());
+        SimpleCacheManager localCacheManager = new SimpleCacheManager();
+        localCacheManager.setCaches(cacheManager.getCacheNames().stream()
+                .map(name -> GUARDED_FILLS.contains(name)
+                        ? new GuardedFillCache(cacheManager.getCache(name), fillGuardLag,
+                                MISSING.contains(name) ? missingMaxSize : byIdMaxSize)
+                        : cacheManager.getCache(name))
+                .toList());
+        localCacheManager.afterPropertiesSet();
+        cacheInvalidationBus.bind(localCacheManager);
+        SimpleCacheManager clusteredCacheManager = new SimpleCacheManager();
+        clusteredCacheManager.setCaches(Stream.concat(
+                        localCacheManager.getCacheNames().stream().map(localCacheManager::getCache),
+                        EXTERNAL.stream().map(NoOpCache::new))
+                .map(cache -> new ClusteredCache(cache, cacheInvalidationBus))
+                .toList());
+        clusteredCacheManager.afterPropertiesSet();
+        return new TransactionAwareCacheManagerProxy(clusteredCacheManager);
+    }
+
+    @Bean
+    public ExternalCache tagEntityCache(EntityManagerFactory entityManagerFactory) {
+        return new EntityRegionCache(TAG_ENTITY, Tag.class, entityManagerFactory);
+    }
+
+    @Bean
+    public ExternalCache authorEntityCache(EntityManagerFactory entityManagerFactory) {
+        return new EntityRegionCache(AUTHOR_ENTITY, Author.class, entityManagerFactory);
+    }
+}
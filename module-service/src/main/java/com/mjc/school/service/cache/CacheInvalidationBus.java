@@ -0,0 +1,283 @@
+package com.mjc.school.service.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Carries cache evictions between application nodes over PostgreSQL {@code LISTEN/NOTIFY} on channel
+ * {@value #CHANNEL}, so no broker is needed. Evictions are collected for {@code cache.invalidation.flush-interval}
+ * and sent as few notifications as possible: keys repeat only once, and a cache with more than
+ * {@code cache.invalidation.max-keys} pending keys is cleared instead. One background thread owns a dedicated
+ * connection outside the pool; it applies what other nodes send to the local caches and skips its own
+ * notifications. Names with no local cache are applied to the matching {@link ExternalCache}. After a lost
+ * connection it clears every local and external cache, since notifications sent meanwhile are gone.
+ */
+@Slf4j
+@Component
+public class CacheInvalidationBus implements SmartLifecycle {
+    static final String CHANNEL = "cache_invalidation";
+    private static final String ALL = "*";
+    private static final int MAX_PAYLOAD_BYTES = 7_900;
+
+    @Value("${cache.invalidation.enabled:false}")
+    private boolean enabled;
+
+    @Value("${cache.invalidation.flush-interval:100ms}")
+    private Duration flushInterval = Duration.ofMillis(100);
+
+    @Value("${cache.invalidation.max-keys:500}")
+    private int maxKeys = 500;
+
+    @Value("${cache.invalidation.reconnect-delay:5s}")
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+
+    @Value("${spring.datasource.url:}")
+    private String url;
+
+    @Value("${spring.datasource.username:}")
+    private String username;
+
+    @Value("${spring.datasource.password:}")
+    private String password;
+
+    private final Map<String, Set<Object>> pending = new HashMap<>();
+    private volatile CacheManager localCaches;
+    private volatile ObjectProvider<ExternalCache> externalCaches;
+    private volatile Thread worker;
+
+    /** Caches that remote evictions are applied to; these must not publish again. */
+    void bind(CacheManager localCaches) {
+        this.localCaches = localCaches;
+    }
+
+    @Autowired
+    void setExternalCaches(ObjectProvider<ExternalCache> externalCaches) {
+        this.externalCaches = externalCaches;
+    }
+
+    void publishEvict(String cacheName, Object key) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (pending) {
+            Set<Object> keys = pending.computeIfAbsent(cacheName, name -> new HashSet<>());
+            if (keys.contains(ALL)) {
+                return;
+            }
+            if (!(key instanceof Long) || keys.size() >= maxKeys) {
+                keys.clear();
+                keys.add(ALL);
+            } else {
+                keys.add(key);
+            }
+        }
+    }
+
+    void publishClear(String cacheName) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (pending) {
+            Set<Object> keys = pending.computeIfAbsent(cacheName, name -> new HashSet<>());
+            keys.clear();
+            keys.add(ALL);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || worker != null) {
+            return;
+        }
+        worker = new Thread(this::run, "cache-invalidation");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        Thread running = worker;
+        worker = null;
+        if (running != null) {
+            running.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return worker != null;
+    }
+
+    private void run() {
+        boolean reconnected = false;
+        while (worker == Thread.currentThread()) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnected) {
+                    clearLocal();
+                }
+                reconnected = true;
+                while (worker == Thread.currentThread()) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) flushInterval.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            if (notification.getPID() != pgConnection.getBackendPID()) {
+                                apply(notification.getParameter());
+                            }
+                        }
+                    }
+                    flush(connection);
+                }
+            } catch (SQLException e) {
+                log.warn("Cache invalidation connection lost, retrying in {}", reconnectDelay, e);
+                try {
+                    Thread.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void flush(Connection connection) throws SQLException {
+        Map<String, Set<Object>> batch;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new HashMap<>(pending);
+            pending.clear();
+        }
+        try (PreparedStatement notify = connection.prepareStatement("SELECT pg_notify('" + CHANNEL + "', ?)")) {
+            for (String payload : payloads(batch)) {
+                notify.setString(1, payload);
+                notify.execute();
+            }
+        } catch (SQLException e) {
+            batch.forEach((cacheName, keys) -> keys.forEach(key -> {
+                if (ALL.equals(key)) {
+                    publishClear(cacheName);
+                } else {
+                    publishEvict(cacheName, key);
+                }
+            }));
+            throw e;
+        }
+    }
+
+    /**
+     * Encodes {@code cache=key,key;cache=*}, split so no notification exceeds the payload limit. Cache
+     * names and keys are ASCII, so characters count as bytes.
+     */
+    static List<String> payloads(Map<String, Set<Object>> batch) {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder();
+        for (Map.Entry<String, Set<Object>> entry : batch.entrySet()) {
+            StringBuilder part = new StringBuilder(entry.getKey()).append('=');
+            for (Object key : entry.getValue()) {
+                String token = key.toString();
+                if (part.length() + token.length() + 1 > MAX_PAYLOAD_BYTES) {
+                    append(payloads, payload, part);
+                    part = new StringBuilder(entry.getKey()).append('=');
+                }
+                if (part.charAt(part.length() - 1) != '=') {
+                    part.append(',');
+                }
+                part.append(token);
+            }
+            append(payloads, payload, part);
+        }
+        if (!payload.isEmpty()) {
+            payloads.add(payload.toString());
+        }
+        return payloads;
+    }
+
+    private static void append(List<String> payloads, StringBuilder payload, StringBuilder part) {
+        if (!payload.isEmpty() && payload.length() + part.length() + 1 > MAX_PAYLOAD_BYTES) {
+            payloads.add(payload.toString());
+            payload.setLength(0);
+        }
+        if (!payload.isEmpty()) {
+            payload.append(';');
+        }
+        payload.append(part);
+    }
+
+    void apply(String payload) {
+        CacheManager caches = localCaches;
+        if (caches == null) {
+            return;
+        }
+        for (String part : payload.split(";")) {
+            int separator = part.indexOf('=');
+            if (separator <= 0) {
+                continue;
+            }
+            String name = part.substring(0, separator);
+            String keys = part.substring(separator + 1);
+            Cache cache = caches.getCache(name);
+            if (cache != null) {
+                if (ALL.equals(keys)) {
+                    cache.clear();
+                } else {
+                    for (String key : keys.split(",")) {
+                        cache.evict(Long.valueOf(key));
+                    }
+                }
+                continue;
+            }
+            ExternalCache external = externalCache(name);
+            if (external == null) {
+                continue;
+            }
+            if (ALL.equals(keys)) {
+                external.clear();
+            } else {
+                for (String key : keys.split(",")) {
+                    external.evict(Long.valueOf(key));
+                }
+            }
+        }
+    }
+
+    private ExternalCache externalCache(String name) {
+        ObjectProvider<ExternalCache> provider = externalCaches;
+        return provider == null ? null : provider.stream().filter(external -> external.name().equals(name)).findFirst().orElse(null);
+    }
+
+    private void clearLocal() {
+        CacheManager caches = localCaches;
+        if (caches != null) {
+            caches.getCacheNames().forEach(name -> caches.getCache(name).clear());
+        }
+        ObjectProvider<ExternalCache> provider = externalCaches;
+        if (provider != null) {
+            provider.forEach(ExternalCache::clear);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.mjc.school.service.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Local cache whose evictions are also sent to the other nodes. It sits under the transaction-aware
+ * decorator, so an eviction is published only once its transaction has committed.
+ */
+public class ClusteredCache implements Cache {
+    private final Cache target;
+    private final CacheInvalidationBus bus;
+
+    ClusteredCache(Cache target, CacheInvalidationBus bus) {
+        this.target = target;
+        this.bus = bus;
+    }
+
+    public Cache getTarget() {
+        return target;
+    }
+
+    @Override
+    public String getName() {
+        return target.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return target.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return target.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return target.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return target.get(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        target.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return target.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        target.evict(key);
+        bus.publishEvict(getName(), key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = target.evictIfPresent(key);
+        bus.publishEvict(getName(), key);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        target.clear();
+        bus.publishClear(getName());
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean notEmpty = target.invalidate();
+        bus.publishClear(getName());
+        return notEmpty;
+    }
+}
@@ -0,0 +1,40 @@
+package com.mjc.school.service.cache;
+
+import org.hibernate.SessionFactory;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Second-level cache regions of one entity: its entity region by id, and its natural-id region, which
+ * cannot be evicted by id and is dropped whole.
+ */
+public class EntityRegionCache implements ExternalCache {
+    private final String name;
+    private final Class<?> entityClass;
+    private final EntityManagerFactory entityManagerFactory;
+
+    EntityRegionCache(String name, Class<?> entityClass, EntityManagerFactory entityManagerFactory) {
+        this.name = name;
+        this.entityClass = entityClass;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public void evict(Long id) {
+        org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(entityClass, id);
+        cache.evictNaturalIdData(entityClass);
+    }
+
+    @Override
+    public void clear() {
+        org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(entityClass);
+        cache.evictNaturalIdData(entityClass);
+    }
+}
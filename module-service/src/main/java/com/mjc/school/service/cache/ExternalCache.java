@@ -0,0 +1,16 @@
+package com.mjc.school.service.cache;
+
+/**
+ * In-process data kept outside the Spring cache manager that other nodes' writes must invalidate, such as
+ * Hibernate's second-level cache regions or the news search index. Its name is registered as a cache, so
+ * {@code @CacheEvict} on that name publishes through {@link CacheInvalidationBus} after commit; the bus
+ * applies what other nodes publish here. The writing node keeps its own copy current itself.
+ */
+public interface ExternalCache {
+
+    String name();
+
+    void evict(Long id);
+
+    void clear();
+}
@@ -0,0 +1,132 @@
+package com.mjc.school.service.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local cache that drops a fill which may hold data older than an eviction of its key. A fill starts at the
+ * miss that precedes the read and is refused when the key, or the whole cache, was evicted after the fill
+ * started or less than {@code lag} before it. The first rule covers a reader whose deferred put lands after
+ * a writer's eviction; the second covers a read served by a replica that had not yet replayed the write.
+ * Evictions are remembered for a minute; once one is forgotten, fills that started close to it are refused.
+ * A fill is tracked per thread until its put or the thread's next lookup, so a load that failed leaves
+ * nothing behind for a later put on the same pooled thread.
+ */
+public class GuardedFillCache implements Cache {
+    private static final Duration REMEMBER_EVICTIONS = Duration.ofMinutes(1);
+
+    private final Cache target;
+    private final long lagNanos;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Long> evictedAt;
+    private final AtomicLong forgottenUpTo;
+    private final ThreadLocal<Fill> pending = new ThreadLocal<>();
+    private volatile long clearedAt;
+
+    GuardedFillCache(Cache target, Duration lag, long maxEvictions) {
+        this.target = target;
+        this.lagNanos = lag.toNanos();
+        this.clearedAt = System.nanoTime() - lagNanos - 1;
+        this.forgottenUpTo = new AtomicLong(clearedAt);
+        this.evictedAt = Caffeine.newBuilder()
+                .maximumSize(maxEvictions)
+                .expireAfterWrite(REMEMBER_EVICTIONS)
+                .executor(Runnable::run)
+                .<Object, Long>removalListener((key, time, cause) -> {
+                    if (cause.wasEvicted() && time != null) {
+                        forgottenUpTo.accumulateAndGet(time, Math::max);
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return target.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return target.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        pending.remove();
+        ValueWrapper value = target.get(key);
+        if (value == null) {
+            pending.set(new Fill(key, System.nanoTime()));
+        }
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        pending.remove();
+        return target.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        pending.remove();
+        try {
+            return target.get(key, valueLoader);
+        } finally {
+            pending.remove();
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (acceptsFill(key)) {
+            target.put(key, value);
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return acceptsFill(key) ? target.putIfAbsent(key, value) : target.get(key);
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictedAt.put(key, System.nanoTime());
+        target.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        evictedAt.put(key, System.nanoTime());
+        return target.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        clearedAt = System.nanoTime();
+        target.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        clearedAt = System.nanoTime();
+        return target.invalidate();
+    }
+
+    private boolean acceptsFill(Object key) {
+        Fill fill = pending.get();
+        if (fill == null || !fill.key().equals(key)) {
+            return true;
+        }
+        pending.remove();
+        long freshAfter = fill.startedAt() - lagNanos;
+        Long evicted = evictedAt.getIfPresent(key);
+        return clearedAt - freshAfter < 0 && forgottenUpTo.get() - freshAfter < 0
+                && (evicted == null || evicted - freshAfter < 0);
+    }
+
+    private record Fill(Object key, long startedAt) {
+    }
+}
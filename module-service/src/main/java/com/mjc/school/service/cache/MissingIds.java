@@ -0,0 +1,47 @@
+package com.mjc.school.service.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ids that were just looked up and not found, so repeated lookups of them fail without a query. A miss is
+ * remembered at once and on this node only, since the failing read rolls back and a transaction-bound put
+ * would be dropped. A miss read from a replica is not remembered, since the replica may lag behind a create
+ * the primary already has; see {@link ReplicaReads}. Creating an id forgets it after commit on every node.
+ * The put still goes through the cache's {@link GuardedFillCache}, which counts the lookup as started by
+ * {@link #isMissing}: a miss read before its id was forgotten is dropped. Rows loaded through COPY can keep
+ * an id reported missing for at most {@code cache.missing.ttl}.
+ */
+@Component
+@RequiredArgsConstructor
+public class MissingIds {
+    private final CacheManager cacheManager;
+
+    public boolean isMissing(String cacheName, Long id) {
+        Cache cache = cacheManager.getCache(cacheName);
+        return id != null && cache != null && cache.get(id) != null;
+    }
+
+    public void remember(String cacheName, Long id) {
+        if (ReplicaReads.servedCurrentTransaction()) {
+            return;
+        }
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache instanceof TransactionAwareCacheDecorator decorator) {
+            cache = decorator.getTargetCache();
+        }
+        if (id != null && cache != null) {
+            cache.put(id, Boolean.TRUE);
+        }
+    }
+
+    public void forget(String cacheName, Long id) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (id != null && cache != null) {
+            cache.evict(id);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.mjc.school.service.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Marks the transactions whose reads a replica served, for caches that must not learn an absence from them:
+ * a replica may not have replayed a row the primary already has. The routing data source marks a
+ * transaction when it hands it a replica connection, and the mark is dropped when the transaction completes.
+ */
+public final class ReplicaReads {
+    private static final Object RESOURCE = ReplicaReads.class;
+
+    private ReplicaReads() {
+    }
+
+    public static void markCurrentTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(RESOURCE)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(RESOURCE, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(RESOURCE);
+            }
+        });
+    }
+
+    public static boolean servedCurrentTransaction() {
+        return TransactionSynchronizationManager.hasResource(RESOURCE);
+    }
+}
@@ -0,0 +1,57 @@
+package com.mjc.school.service.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.mjc.school.dto.CacheStatsDtoResponse;
+import com.mjc.school.exception.ElementNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+import static com.mjc.school.exception.ErrorCodes.NO_CACHE_WITH_PROVIDED_NAME;
+
+/**
+ * Inspection and flushing of the service response caches. Flushing is immediate; it is not deferred
+ * to a transaction the way service evictions are, and it reaches every node.
+ */
+@Service
+@RequiredArgsConstructor
+public class ResponseCacheService {
+    private final CacheManager cacheManager;
+
+    public List<CacheStatsDtoResponse> readAll() {
+        return cacheManager.getCacheNames().stream().sorted().filter(this::isLocal).map(this::readByName).toList();
+    }
+
+    public CacheStatsDtoResponse readByName(String name) {
+        if (!(localCache(name).getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> cache)) {
+            throw new ElementNotFoundException(String.format(NO_CACHE_WITH_PROVIDED_NAME.getErrorMessage(), name));
+        }
+        CacheStats stats = cache.stats();
+        return new CacheStatsDtoResponse(name, cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+
+    public void clear(String name) {
+        localCache(name).clear();
+    }
+
+    public void clearAll() {
+        cacheManager.getCacheNames().stream().filter(this::isLocal).forEach(this::clear);
+    }
+
+    private boolean isLocal(String name) {
+        return localCache(name).getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?>;
+    }
+
+    private Cache localCache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            throw new ElementNotFoundException(String.format(NO_CACHE_WITH_PROVIDED_NAME.getErrorMessage(), name));
+        }
+        return cache instanceof TransactionAwareCacheDecorator decorator ? decorator.getTargetCache() : cache;
+    }
+}
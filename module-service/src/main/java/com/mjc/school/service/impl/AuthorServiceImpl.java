@@ -2,15 +2,24 @@ package com.mjc.school.service.impl;
 
 
 import com.mjc.school.repository.impl.AuthorRepository;
+import com.mjc.school.repository.KeysetPage;
 import com.mjc.school.model.Author;
 import com.mjc.school.dto.AuthorDtoRequest;
 import com.mjc.school.dto.AuthorDtoResponse;
+import com.mjc.school.dto.AuthorNewsCountDtoResponse;
+import com.mjc.school.dto.CursorPageDtoResponse;
 import com.mjc.school.exception.ElementNotFoundException;
 import com.mjc.school.exception.ValidatorException;
 import com.mjc.school.mapper.AuthorMapper;
 import com.mjc.school.service.AuthorService;
+import com.mjc.school.service.cache.CacheConfig;
+import com.mjc.school.service.cache.MissingIds;
 import com.mjc.school.validation.CustomValidator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,6 +32,7 @@ import static com.mjc.school.exception.ErrorCodes.INVALID_VALUE_OF_SORTING;
 import static com.mjc.school.exception.ErrorCodes.NOT_UNIQUE_AUTHOR_NAME;
 import static com.mjc.school.exception.ErrorCodes.NO_AUTHOR_FOR_NEWS_ID;
 import static com.mjc.school.exception.ErrorCodes.NO_AUTHOR_WITH_PROVIDED_ID;
+import static com.mjc.school.exception.ErrorCodes.VALIDATION;
 
 @Service
 @Transactional
@@ -31,27 +41,53 @@ public class AuthorServiceImpl implements AuthorService {
     private final AuthorRepository authorRepository;
     private final AuthorMapper authorMapper;
     private final CustomValidator customValidator;
+    private final MissingIds missingIds;
+
+    @Value("${read.projection.authors:true}")
+    private boolean projectionReads;
 
     @Override
     @Transactional(readOnly = true)
     public List<AuthorDtoResponse> readAll(int page, int size, String sortBy) {
         try {
+            if (projectionReads && !sortBy.startsWith("newsCount")) {
+                return authorMapper.ViewListToDtoList(authorRepository.readAllViews(page, size, sortBy));
+            }
             return authorMapper.ModelListToDtoList(authorRepository.readAll(page, size, sortBy));
         } catch (InvalidDataAccessApiUsageException e) {
             throw new ValidatorException(String.format(INVALID_VALUE_OF_SORTING.getErrorMessage()));
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDtoResponse<AuthorDtoResponse> readAllAfter(String after, int size, String sortBy) {
+        try {
+            KeysetPage<Author> keysetPage = authorRepository.readAllAfter(after, size, sortBy);
+            return new CursorPageDtoResponse<>(authorMapper.ModelListToDtoList(keysetPage.content()), keysetPage.nextCursor());
+        } catch (InvalidDataAccessApiUsageException e) {
+            throw new ValidatorException(String.format(INVALID_VALUE_OF_SORTING.getErrorMessage()));
+        }
+    }
+
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.AUTHOR_BY_ID)
     public AuthorDtoResponse readById(Long id) {
-        Optional<Author> opt = authorRepository.readById(id);
-        return opt.map(authorMapper::ModelAuthorToDTO).orElseThrow(() -> new ElementNotFoundException(String.format(NO_AUTHOR_WITH_PROVIDED_ID.getErrorMessage(), id)));
+        if (!missingIds.isMissing(CacheConfig.MISSING_AUTHOR, id)) {
+            Optional<Author> opt = authorRepository.readById(id);
+            if (opt.isPresent()) {
+                return authorMapper.ModelAuthorToDTO(opt.get());
+            }
+            missingIds.remember(CacheConfig.MISSING_AUTHOR, id);
+        }
+        throw new ElementNotFoundException(String.format(NO_AUTHOR_WITH_PROVIDED_ID.getErrorMessage(), id));
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.MISSING_AUTHOR, key = "#result.id()")
     public AuthorDtoResponse create(@Valid AuthorDtoRequest createRequest) {
         customValidator.validateAuthor(createRequest);
         if (authorRepository.readAuthorByName(createRequest.name()).isPresent()) {
@@ -65,7 +101,25 @@ public class AuthorServiceImpl implements AuthorService {
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.AUTHORS_WITH_NEWS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.AUTHOR_BY_ID, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.AUTHOR_ENTITY, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.NEWS_BY_ID, allEntries = true)
+    })
     public AuthorDtoResponse update(Long id, @Valid AuthorDtoRequest updateRequest) {
+        return update(id, updateRequest, null);
+    }
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.AUTHORS_WITH_NEWS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.AUTHOR_BY_ID, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.AUTHOR_ENTITY, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.NEWS_BY_ID, allEntries = true)
+    })
+    public AuthorDtoResponse update(Long id, @Valid AuthorDtoRequest updateRequest, Long expectedVersion) {
         if (authorRepository.existById(id)) {
             customValidator.validateAuthor(updateRequest);
             if (authorRepository.readAuthorByName(updateRequest.name()).isPresent()) {
@@ -73,6 +127,7 @@ public class AuthorServiceImpl implements AuthorService {
             }
             Author authorModel = authorMapper.DtoAuthorToModel(updateRequest);
             authorModel.setId(id);
+            authorModel.setVersion(expectedVersion);
             return authorMapper.ModelAuthorToDTO(authorRepository.update(authorModel));
         } else {
             throw new ElementNotFoundException(String.format(NO_AUTHOR_WITH_PROVIDED_ID.getErrorMessage(), id));
@@ -82,6 +137,13 @@ public class AuthorServiceImpl implements AuthorService {
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.AUTHORS_WITH_NEWS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.AUTHOR_BY_ID, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.AUTHOR_ENTITY, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.NEWS_BY_ID, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.COMMENT_BY_ID, allEntries = true)
+    })
     public boolean deleteById(Long id) {
         if (authorRepository.existById(id)) {
             return authorRepository.deleteById(id);
@@ -94,4 +156,35 @@ public class AuthorServiceImpl implements AuthorService {
     public AuthorDtoResponse readAuthorByNewsId(Long newsId) {
         return authorRepository.readAuthorByNewsId(newsId).map(authorMapper::ModelAuthorToDTO).orElseThrow(() -> new ElementNotFoundException(String.format(NO_AUTHOR_FOR_NEWS_ID.getErrorMessage(), newsId)));
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AuthorNewsCountDtoResponse> readRankedByNewsCount(int page, int size) {
+        try {
+            return authorMapper.ViewNewsCountListToDtoList(authorRepository.readRankedByNewsCount(page, size));
+        } catch (InvalidDataAccessApiUsageException e) {
+            throw new ValidatorException(String.format(VALIDATION.getErrorMessage(), "page and size"));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.AUTHORS_WITH_NEWS, key = "#page + ':' + #size")
+    public List<AuthorNewsCountDtoResponse> readAuthorsWithNews(int page, int size) {
+        try {
+            return authorMapper.ViewNewsCountListToDtoList(authorRepository.readAuthorsWithNews(page, size));
+        } catch (InvalidDataAccessApiUsageException e) {
+            throw new ValidatorException(String.format(VALIDATION.getErrorMessage(), "page and size"));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AuthorDtoResponse> searchByName(String fragment, int page, int size) {
+        try {
+            return authorMapper.ModelListToDtoList(authorRepository.searchByName(fragment, page, size));
+        } catch (InvalidDataAccessApiUsageException e) {
+            throw new ValidatorException(String.format(VALIDATION.getErrorMessage(), "name, page and size of the search"));
+        }
+    }
 }
\ No newline at end of file
@@ -4,22 +4,31 @@ package com.mjc.school.service.impl;
 import com.mjc.school.repository.impl.CommentRepository;
 
 import com.mjc.school.repository.impl.NewsRepository;
+import com.mjc.school.repository.KeysetPage;
 import com.mjc.school.model.Comment;
 
 import com.mjc.school.model.News;
 import com.mjc.school.dto.CommentDtoRequest;
 import com.mjc.school.dto.CommentDtoResponse;
+import com.mjc.school.dto.CursorPageDtoResponse;
+import com.mjc.school.dto.ValidatorDtoResponse;
 import com.mjc.school.exception.ElementNotFoundException;
 import com.mjc.school.exception.ValidatorException;
 import com.mjc.school.mapper.CommentMapper;
 import com.mjc.school.service.CommentService;
+import com.mjc.school.service.cache.CacheConfig;
 import com.mjc.school.validation.CustomValidator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,6 +44,7 @@ public class CommentServiceImpl implements CommentService {
     private final CommentMapper commentMapper;
     private final NewsRepository newsRepository;
     private final CustomValidator customValidator;
+    private final CacheManager cacheManager;
 
     @Override
     @Transactional(readOnly = true)
@@ -48,14 +58,36 @@ public class CommentServiceImpl implements CommentService {
 
     @Override
     @Transactional(readOnly = true)
+    public CursorPageDtoResponse<CommentDtoResponse> readAllAfter(String after, int size, String sortBy) {
+        try {
+            KeysetPage<Comment> keysetPage = commentRepository.readAllAfter(after, size, sortBy);
+            return new CursorPageDtoResponse<>(commentMapper.listModelToDtoList(keysetPage.content()), keysetPage.nextCursor());
+        } catch (InvalidDataAccessApiUsageException e) {
+            throw new ValidatorException(String.format(INVALID_VALUE_OF_SORTING.getErrorMessage()));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.COMMENT_BY_ID)
     public CommentDtoResponse readById(Long id) {
         Optional<Comment> opt = commentRepository.readById(id);
         return opt.map(commentMapper::ModelCommentToDto).orElseThrow(() -> new ElementNotFoundException(String.format(NO_COMMENT_WITH_PROVIDED_ID.getErrorMessage(), id)));
 
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ValidatorDtoResponse readValidator(Long id) {
+        return commentRepository.readValidator(id)
+                .map(view -> new ValidatorDtoResponse(String.valueOf(view.version()),
+                        view.lastModified() == null ? null : view.lastModified().atZone(ZoneId.systemDefault()).toInstant()))
+                .orElseThrow(() -> new ElementNotFoundException(String.format(NO_COMMENT_WITH_PROVIDED_ID.getErrorMessage(), id)));
+    }
+
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.NEWS_BY_ID, key = "#createRequest.newsId()")
     public CommentDtoResponse create(CommentDtoRequest createRequest) {
         customValidator.validateComment(createRequest);
         Comment commentModel = commentMapper.DtoCommentToModel(createRequest);
@@ -75,12 +107,24 @@ public class CommentServiceImpl implements CommentService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.COMMENT_BY_ID, key = "#id")
     public CommentDtoResponse update(Long id, CommentDtoRequest updateRequest) {
+        return update(id, updateRequest, null);
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.COMMENT_BY_ID, key = "#id")
+    public CommentDtoResponse update(Long id, CommentDtoRequest updateRequest, Long expectedVersion) {
         if (commentRepository.existById(id)) {
             customValidator.validateComment(updateRequest);
             Comment commentModel = commentMapper.DtoCommentToModel(updateRequest);
             commentModel.setId(id);
-            return commentMapper.ModelCommentToDto(commentRepository.update(commentModel));
+            commentModel.setVersion(expectedVersion);
+            evictNewsOfComment(id);
+            CommentDtoResponse updated = commentMapper.ModelCommentToDto(commentRepository.update(commentModel));
+            evictNews(updated.newsId());
+            return updated;
         } else {
             throw new ElementNotFoundException(String.format(NO_COMMENT_WITH_PROVIDED_ID.getErrorMessage(), id));
         }
@@ -88,8 +132,10 @@ public class CommentServiceImpl implements CommentService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.COMMENT_BY_ID, key = "#id")
     public boolean deleteById(Long id) {
         if (commentRepository.existById(id)) {
+            evictNewsOfComment(id);
             return commentRepository.deleteById(id);
         } else {
             throw new ElementNotFoundException(String.format(NO_COMMENT_WITH_PROVIDED_ID.getErrorMessage(), id));
@@ -104,5 +150,19 @@ public class CommentServiceImpl implements CommentService {
             throw new ElementNotFoundException(String.format(NO_COMMENTS_FOR_NEWS_ID.getErrorMessage(), newsId));
         }
     }
-}
 
+    /**
+     * A news response embeds its comments, so a comment write evicts the news it belonged to before the
+     * write; the cache manager applies the eviction once the transaction commits.
+     */
+    private void evictNewsOfComment(Long commentId) {
+        commentRepository.readById(commentId).map(comment -> comment.getNewsModel().getId()).ifPresent(this::evictNews);
+    }
+
+    private void evictNews(Long newsId) {
+        Cache news = cacheManager.getCache(CacheConfig.NEWS_BY_ID);
+        if (news != null && newsId != null) {
+            news.evict(newsId);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.mjc.school.service.impl;
 import com.mjc.school.dto.NewsDtoRequest;
 import com.mjc.school.dto.NewsDtoResponse;
 import com.mjc.school.dto.NewsPageDtoResponse;
+import com.mjc.school.dto.ValidatorDtoResponse;
 import com.mjc.school.exception.ElementNotFoundException;
 import com.mjc.school.exception.ErrorCodes;
 import com.mjc.school.exception.ValidatorException;
@@ -10,19 +11,42 @@ import com.mjc.school.mapper.NewsMapper;
 import com.mjc.school.model.Author;
 import com.mjc.school.model.News;
 import com.mjc.school.model.Tag;
+import com.mjc.school.repository.KeysetPage;
+import com.mjc.school.repository.NewsFetchPlan;
+import com.mjc.school.repository.NewsSearchMode;
+import com.mjc.school.repository.PagedResult;
 import com.mjc.school.repository.impl.AuthorRepository;
 import com.mjc.school.repository.impl.NewsRepository;
 import com.mjc.school.repository.impl.TagRepository;
+import com.mjc.school.repository.projection.NewsView;
+import com.mjc.school.repository.projection.ValidatorView;
+import com.mjc.school.service.NewsETag;
 import com.mjc.school.service.NewsService;
+import com.mjc.school.service.cache.CacheConfig;
+import com.mjc.school.service.cache.MissingIds;
+import com.mjc.school.service.search.NewsSearchIndex;
 import com.mjc.school.validation.CustomValidator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.mjc.school.exception.ErrorCodes.INVALID_VALUE_OF_SORTING;
 import static com.mjc.school.exception.ErrorCodes.NO_NEWS_WITH_PROVIDED_ID;
@@ -37,64 +61,168 @@ public class NewsServiceImpl implements NewsService<NewsDtoRequest, NewsDtoRespo
     private final AuthorRepository authorRepository;
     private final TagRepository tagRepository;
     private final CustomValidator customValidator;
+    private final NewsSearchIndex newsSearchIndex;
+    private final MissingIds missingIds;
+
+    @Value("${read.projection.news:true}")
+    private boolean projectionReads;
+
+    @Value("${news.export.chunk-size:500}")
+    private int exportChunkSize;
 
     @Override
     @Transactional(readOnly = true)
     public NewsPageDtoResponse readAll(int page, int size, String sortBy) {
         try {
-            List <NewsDtoResponse> newsList = newsMapper.ModelListToDtoList((newsRepository.readAll(page, size, sortBy)));
-            long totalNewsCount = newsRepository.readAll(page, size, sortBy).stream().count();
-            return new NewsPageDtoResponse(newsList, totalNewsCount);
+            if (projectionReads) {
+                PagedResult<NewsView> newsViews = newsRepository.readAllViews(page, size, sortBy);
+                return new NewsPageDtoResponse(newsMapper.ViewListToDtoList(newsViews.content()), newsViews.totalCount());
+            }
+            PagedResult<News> newsPage = newsRepository.readPage(page, size, sortBy);
+            newsRepository.fetch(newsPage.content(), NewsFetchPlan.LIST);
+            return new NewsPageDtoResponse(newsMapper.ModelListToDtoList(newsPage.content()), newsPage.totalCount());
+        } catch (InvalidDataAccessApiUsageException e) {
+            throw new ValidatorException(String.format(INVALID_VALUE_OF_SORTING.getErrorMessage()));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public NewsPageDtoResponse readAllAfter(String after, int size, String sortBy) {
+        try {
+            KeysetPage<News> keysetPage = newsRepository.readAllAfter(after, size, sortBy);
+            newsRepository.fetch(keysetPage.content(), NewsFetchPlan.LIST);
+            return new NewsPageDtoResponse(newsMapper.ModelListToDtoList(keysetPage.content()), newsRepository.countNews(), keysetPage.nextCursor());
         } catch (InvalidDataAccessApiUsageException e) {
             throw new ValidatorException(String.format(INVALID_VALUE_OF_SORTING.getErrorMessage()));
         }
     }
 
 
+    /**
+     * Hands every news to {@code consumer} in id order. Rows come from a server-side cursor; each chunk gets
+     * its associations in two queries and is detached once mapped, so memory does not grow with the table.
+     */
     @Override
     @Transactional(readOnly = true)
-    public NewsDtoResponse readById(Long id) {
-        Optional<News> opt = newsRepository.readById(id);
-        return opt.map(newsMapper::ModelNewsToDTO).orElseThrow(() -> new ElementNotFoundException(String.format(NO_NEWS_WITH_PROVIDED_ID.getErrorMessage(), id)));
+    public void exportAll(Consumer<NewsDtoResponse> consumer) {
+        List<News> chunk = new ArrayList<>(exportChunkSize);
+        try (Stream<News> news = newsRepository.streamAll(exportChunkSize)) {
+            news.forEach(item -> {
+                chunk.add(item);
+                if (chunk.size() == exportChunkSize) {
+                    exportChunk(chunk, consumer);
+                }
+            });
+        }
+        exportChunk(chunk, consumer);
+    }
+
+    private void exportChunk(List<News> chunk, Consumer<NewsDtoResponse> consumer) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        newsRepository.fetch(chunk, NewsFetchPlan.DETAIL);
+        chunk.forEach(news -> consumer.accept(newsMapper.ModelNewsToDTO(news)));
+        chunk.clear();
+        newsRepository.detachAll();
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.NEWS_BY_ID)
+    public NewsDtoResponse readById(Long id) {
+        if (!missingIds.isMissing(CacheConfig.MISSING_NEWS, id)) {
+            Optional<News> opt = newsRepository.readById(id, NewsFetchPlan.DETAIL);
+            if (opt.isPresent()) {
+                return newsMapper.ModelNewsToDTO(opt.get());
+            }
+            missingIds.remember(CacheConfig.MISSING_NEWS, id);
+        }
+        throw new ElementNotFoundException(String.format(NO_NEWS_WITH_PROVIDED_ID.getErrorMessage(), id));
     }
 
 
+    /**
+     * ETag and Last-Modified of {@link #readById(Long)}'s response, without loading or mapping the news.
+     * The ETag starts with the news version, so it still works as an {@code If-Match} precondition, and equals
+     * {@link NewsETag#of(NewsDtoResponse)} of the response read at the same time.
+     * Last-Modified does not see tag renames; only the ETag does.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ValidatorDtoResponse readValidator(Long id) {
+        if (!missingIds.isMissing(CacheConfig.MISSING_NEWS, id)) {
+            Optional<ValidatorView> view = newsRepository.readValidator(id);
+            if (view.isPresent()) {
+                LocalDateTime lastModified = view.get().lastModified();
+                return new ValidatorDtoResponse(NewsETag.of(view.get()),
+                        lastModified == null ? null : lastModified.atZone(ZoneId.systemDefault()).toInstant());
+            }
+            missingIds.remember(CacheConfig.MISSING_NEWS, id);
+        }
+        throw new ElementNotFoundException(String.format(NO_NEWS_WITH_PROVIDED_ID.getErrorMessage(), id));
+    }
+
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.AUTHORS_WITH_NEWS, allEntries = true),
+            @CacheEvict(cacheNames = {CacheConfig.MISSING_NEWS, CacheConfig.NEWS_SEARCH_INDEX}, key = "#result.id()")
+    })
     public NewsDtoResponse create(NewsDtoRequest createRequest) {
         if (createRequest.authorName().isBlank()) {
             throw new ValidatorException("Author name cannot be empty");
         }
         customValidator.validateNews(createRequest);
-        createNotExistAuthor(createRequest.authorName());
         if (createRequest.tagNames() == null || createRequest.tagNames().isEmpty() || createRequest.tagNames().equals("")) {
             throw new ValidatorException("Please specify tag names");
         }
-        createNotExistTags(createRequest.tagNames());
-
         if (newsRepository.readNewsByTitle(createRequest.title()).isPresent()) {
             throw new ValidatorException("Title of news must be unique");
         }
         News newsModel = newsMapper.DTONewsToModel(createRequest);
-        return newsMapper.ModelNewsToDTO(newsRepository.create(newsModel));
+        newsModel.setAuthorModel(resolveAuthor(createRequest.authorName()));
+        newsModel.setTags(resolveTags(createRequest.tagNames()));
+        News created = newsRepository.create(newsModel);
+        newsSearchIndex.index(created.getId(), created.getTitle(), created.getContent());
+        return newsMapper.ModelNewsToDTO(created);
     }
 
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.AUTHORS_WITH_NEWS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.NEWS_BY_ID, key = "#id"),
+            @CacheEvict(cacheNames = {CacheConfig.NEWS_SEARCH_INDEX, CacheConfig.NEWS_JSON}, key = "#id")
+    })
     public NewsDtoResponse update(Long id, NewsDtoRequest updateRequest) {
+        return update(id, updateRequest, null);
+    }
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.AUTHORS_WITH_NEWS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.NEWS_BY_ID, key = "#id"),
+            @CacheEvict(cacheNames = {CacheConfig.NEWS_SEARCH_INDEX, CacheConfig.NEWS_JSON}, key = "#id")
+    })
+    public NewsDtoResponse update(Long id, NewsDtoRequest updateRequest, Long expectedVersion) {
         if (newsRepository.existById(id)) {
             customValidator.validateNews(updateRequest);
-            createNotExistAuthor(updateRequest.authorName());
-            createNotExistTags(updateRequest.tagNames());
             if (newsRepository.readNewsByTitle(updateRequest.title()).isPresent()) {
                 throw new ValidatorException("Title of news must be unique");
             }
             News newsModel = newsMapper.DTONewsToModel(updateRequest);
             newsModel.setId(id);
+            newsModel.setVersion(expectedVersion);
+            newsModel.setAuthorModel(resolveAuthor(updateRequest.authorName()));
+            newsModel.setTags(resolveTags(updateRequest.tagNames()));
 
-            return newsMapper.ModelNewsToDTO(newsRepository.update(newsModel));
+            News updated = newsRepository.update(newsModel);
+            newsSearchIndex.index(updated.getId(), updated.getTitle(), updated.getContent());
+            return newsMapper.ModelNewsToDTO(updated);
         } else {
             throw new ElementNotFoundException(String.format(NO_NEWS_WITH_PROVIDED_ID.getErrorMessage(), id));
         }
@@ -103,8 +231,15 @@ public class NewsServiceImpl implements NewsService<NewsDtoRequest, NewsDtoRespo
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.AUTHORS_WITH_NEWS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.NEWS_BY_ID, key = "#id"),
+            @CacheEvict(cacheNames = {CacheConfig.NEWS_SEARCH_INDEX, CacheConfig.NEWS_JSON}, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.COMMENT_BY_ID, allEntries = true)
+    })
     public boolean deleteById(Long id) {
         if (newsRepository.existById(id)) {
+            newsSearchIndex.remove(id);
             return newsRepository.deleteById(id);
         } else {
             throw new ElementNotFoundException(String.format(NO_NEWS_WITH_PROVIDED_ID.getErrorMessage(), id));
@@ -112,36 +247,58 @@ public class NewsServiceImpl implements NewsService<NewsDtoRequest, NewsDtoRespo
     }
 
     @Override
-    public List<NewsDtoResponse> readListOfNewsByParams(List<String> tagName, List<Long> tagId, String authorName, String title, String content) {
-
-        return newsMapper.ModelListToDtoList(newsRepository.readListOfNewsByParams(tagName, tagId, authorName, title, content));
+    @Transactional(readOnly = true)
+    public List<NewsDtoResponse> readListOfNewsByParams(List<String> tagName, List<Long> tagId, String authorName, String title, String content,
+                                                        NewsSearchMode mode, int page, int size, String sortBy) {
+        try {
+            if (mode == NewsSearchMode.INDEX && newsSearchIndex.isReady() && (title != null || content != null)
+                    && (tagName == null || tagName.isEmpty()) && (tagId == null || tagId.isEmpty()) && authorName == null) {
+                return readFromSearchIndex(Stream.of(title, content).filter(Objects::nonNull).collect(Collectors.joining(" ")), page, size);
+            }
+            List<News> newsList = newsRepository.readListOfNewsByParams(tagName, tagId, authorName, title, content, mode, page, size, sortBy);
+            newsRepository.fetch(newsList, NewsFetchPlan.SEARCH);
+            return newsMapper.ModelListToDtoList(newsList);
+        } catch (InvalidDataAccessApiUsageException e) {
+            throw new ValidatorException(String.format(INVALID_VALUE_OF_SORTING.getErrorMessage()));
+        }
     }
 
-    public void createNotExistAuthor(String authorName) {
-        if (authorName != null && !authorName.equals("")) {
-            if (authorName.length() < AUTHOR_NAME_MAX_LENGTH && authorName.length() > AUTHOR_NAME_MIN_LENGTH && !authorName.isBlank()) {
-                if (authorRepository.readAuthorByName(authorName).isEmpty()) {
-                    Author authorModel = new Author();
-                    authorModel.setName(authorName);
-                    authorRepository.create(authorModel);
-                }
-            } else {
-                throw new ValidatorException(String.format(ErrorCodes.VALIDATION.getErrorMessage(), "Length of author`s name must be between 15 and 3"));
-            }
+    private List<NewsDtoResponse> readFromSearchIndex(String terms, int page, int size) {
+        if (page < 0 || size <= 0) {
+            throw new ValidatorException(String.format(INVALID_VALUE_OF_SORTING.getErrorMessage()));
+        }
+        List<Long> rankedIds = newsSearchIndex.search(terms);
+        int from = (int) Math.min((long) page * size, rankedIds.size());
+        List<Long> pageIds = rankedIds.subList(from, Math.min(from + size, rankedIds.size()));
+        Map<Long, News> newsById = newsRepository.readAllByIds(pageIds).stream()
+                .collect(Collectors.toMap(News::getId, Function.identity()));
+        List<News> newsList = pageIds.stream().map(newsById::get).filter(Objects::nonNull).toList();
+        newsRepository.fetch(newsList, NewsFetchPlan.SEARCH);
+        return newsMapper.ModelListToDtoList(newsList);
+    }
 
+    public Author resolveAuthor(String authorName) {
+        if (authorName == null || authorName.equals("")) {
+            return null;
+        }
+        if (authorName.length() < AUTHOR_NAME_MAX_LENGTH && authorName.length() > AUTHOR_NAME_MIN_LENGTH && !authorName.isBlank()) {
+            Author author = authorRepository.readOrCreateByNames(List.of(authorName)).get(0);
+            missingIds.forget(CacheConfig.MISSING_AUTHOR, author.getId());
+            return author;
+        } else {
+            throw new ValidatorException(String.format(ErrorCodes.VALIDATION.getErrorMessage(), "Length of author`s name must be between 15 and 3"));
         }
     }
 
-    public void createNotExistTags(List<String> tagNames) {
-        tagNames.stream().filter(name -> tagRepository.readTagByName(name).isEmpty()).map(name -> {
-            if (name.length() >= TAG_NAME_MIN_LENGTH && name.length() < TAG_NAME_MAX_LENGTH && !name.isBlank()) {
-                Tag tagModel = new Tag();
-                tagModel.setName(name);
-                return tagModel;
-            } else {
+    public List<Tag> resolveTags(List<String> tagNames) {
+        tagNames.forEach(name -> {
+            if (name.length() < TAG_NAME_MIN_LENGTH || name.length() >= TAG_NAME_MAX_LENGTH || name.isBlank()) {
                 throw new ValidatorException(String.format(ErrorCodes.VALIDATION.getErrorMessage(), "Length of tag`s name must be between 15 and 3"));
             }
-        }).forEach(tagRepository::create);
+        });
+        List<Tag> tags = new ArrayList<>(tagRepository.readOrCreateByNames(tagNames));
+        tags.forEach(tag -> missingIds.forget(CacheConfig.MISSING_TAG, tag.getId()));
+        return tags;
     }
 }
 
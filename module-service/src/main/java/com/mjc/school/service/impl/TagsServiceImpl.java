@@ -2,14 +2,22 @@ package com.mjc.school.service.impl;
 
 import com.mjc.school.repository.impl.TagRepository;
 import com.mjc.school.model.Tag;
+import com.mjc.school.repository.KeysetPage;
 import com.mjc.school.dto.TagDtoRequest;
 import com.mjc.school.dto.TagDtoResponse;
+import com.mjc.school.dto.CursorPageDtoResponse;
 import com.mjc.school.exception.ElementNotFoundException;
 import com.mjc.school.exception.ValidatorException;
 import com.mjc.school.mapper.TagMapper;
 import com.mjc.school.service.TagService;
+import com.mjc.school.service.cache.CacheConfig;
+import com.mjc.school.service.cache.MissingIds;
 import com.mjc.school.validation.CustomValidator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,6 +30,7 @@ import static com.mjc.school.exception.ErrorCodes.NOT_UNIQUE_TAGS_NAME;
 import static com.mjc.school.exception.ErrorCodes.NO_NEWS_WITH_PROVIDED_ID;
 import static com.mjc.school.exception.ErrorCodes.NO_TAGS_FOR_NEWS_ID;
 import static com.mjc.school.exception.ErrorCodes.NO_TAG_WITH_PROVIDED_ID;
+import static com.mjc.school.exception.ErrorCodes.VALIDATION;
 
 @Service
 @Transactional
@@ -30,11 +39,18 @@ public class TagsServiceImpl implements TagService {
     private final TagRepository tagsRepository;
     private final TagMapper tagMapper;
     private final CustomValidator customValidator;
+    private final MissingIds missingIds;
+
+    @Value("${read.projection.tags:true}")
+    private boolean projectionReads;
 
     @Override
     @Transactional(readOnly = true)
     public List<TagDtoResponse> readAll(int page, int size, String sortBy) {
         try {
+            if (projectionReads) {
+                return tagMapper.viewListToDtoList(tagsRepository.readAllViews(page, size, sortBy));
+            }
             return tagMapper.listModelToDtoList(tagsRepository.readAll(page, size, sortBy));
         } catch (InvalidDataAccessApiUsageException e) {
             throw new ValidatorException(String.format(INVALID_VALUE_OF_SORTING.getErrorMessage()));
@@ -43,14 +59,32 @@ public class TagsServiceImpl implements TagService {
 
     @Override
     @Transactional(readOnly = true)
-    public TagDtoResponse readById(Long id) {
-        Optional<Tag> opt = tagsRepository.readById(id);
-        return opt.map(tagMapper::ModelTagsToDto).orElseThrow(() -> new ElementNotFoundException(String.format(NO_TAG_WITH_PROVIDED_ID.getErrorMessage(), id)));
+    public CursorPageDtoResponse<TagDtoResponse> readAllAfter(String after, int size, String sortBy) {
+        try {
+            KeysetPage<Tag> keysetPage = tagsRepository.readAllAfter(after, size, sortBy);
+            return new CursorPageDtoResponse<>(tagMapper.listModelToDtoList(keysetPage.content()), keysetPage.nextCursor());
+        } catch (InvalidDataAccessApiUsageException e) {
+            throw new ValidatorException(String.format(INVALID_VALUE_OF_SORTING.getErrorMessage()));
+        }
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.TAG_BY_ID)
+    public TagDtoResponse readById(Long id) {
+        if (!missingIds.isMissing(CacheConfig.MISSING_TAG, id)) {
+            Optional<Tag> opt = tagsRepository.readById(id);
+            if (opt.isPresent()) {
+                return tagMapper.ModelTagsToDto(opt.get());
+            }
+            missingIds.remember(CacheConfig.MISSING_TAG, id);
+        }
+        throw new ElementNotFoundException(String.format(NO_TAG_WITH_PROVIDED_ID.getErrorMessage(), id));
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.MISSING_TAG, key = "#result.id()")
     public TagDtoResponse create(TagDtoRequest createRequest) {
         customValidator.validateTag(createRequest);
         if (tagsRepository.readTagByName(createRequest.name()).isPresent()) {
@@ -62,7 +96,23 @@ public class TagsServiceImpl implements TagService {
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TAG_BY_ID, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.TAG_ENTITY, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.NEWS_BY_ID, allEntries = true)
+    })
     public TagDtoResponse update(Long id, TagDtoRequest updateRequest) {
+        return update(id, updateRequest, null);
+    }
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TAG_BY_ID, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.TAG_ENTITY, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.NEWS_BY_ID, allEntries = true)
+    })
+    public TagDtoResponse update(Long id, TagDtoRequest updateRequest, Long expectedVersion) {
         if (tagsRepository.existById(id)) {
             customValidator.validateTag(updateRequest);
             if (tagsRepository.readTagByName(updateRequest.name()).isPresent()) {
@@ -70,6 +120,7 @@ public class TagsServiceImpl implements TagService {
             }
             Tag tagModel = tagMapper.DtoTagsToModel(updateRequest);
             tagModel.setId(id);
+            tagModel.setVersion(expectedVersion);
             return tagMapper.ModelTagsToDto(tagsRepository.update(tagModel));
         } else {
             throw new ElementNotFoundException(String.format(NO_TAG_WITH_PROVIDED_ID.getErrorMessage(), id));
@@ -79,6 +130,11 @@ public class TagsServiceImpl implements TagService {
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TAG_BY_ID, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.TAG_ENTITY, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.NEWS_BY_ID, allEntries = true)
+    })
     public boolean deleteById(Long id) {
         if (tagsRepository.existById(id)) {
             return tagsRepository.deleteById(id);
@@ -87,6 +143,16 @@ public class TagsServiceImpl implements TagService {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<TagDtoResponse> searchByName(String fragment, int page, int size) {
+        try {
+            return tagMapper.listModelToDtoList(tagsRepository.searchByName(fragment, page, size));
+        } catch (InvalidDataAccessApiUsageException e) {
+            throw new ValidatorException(String.format(VALIDATION.getErrorMessage(), "name, page and size of the search"));
+        }
+    }
+
     public List<TagDtoResponse> readListOfTagsByNewsId(Long newsId) {
         if (newsId != null && newsId >= 0) {
             try {
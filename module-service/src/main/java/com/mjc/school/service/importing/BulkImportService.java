@@ -0,0 +1,201 @@
+package com.mjc.school.service.importing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mjc.school.dto.CommentDtoRequest;
+import com.mjc.school.dto.ImportErrorDtoResponse;
+import com.mjc.school.dto.ImportProgressDtoResponse;
+import com.mjc.school.dto.NewsDtoRequest;
+import com.mjc.school.exception.ErrorCodes;
+import com.mjc.school.exception.ValidatorException;
+import com.mjc.school.validation.CustomValidator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+
+import javax.validation.ValidationException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static com.mjc.school.validation.CustomValidator.AUTHOR_NAME_MAX_LENGTH;
+import static com.mjc.school.validation.CustomValidator.AUTHOR_NAME_MIN_LENGTH;
+import static com.mjc.school.validation.CustomValidator.ERROR_OF_AUTHORS_NAME;
+import static com.mjc.school.validation.CustomValidator.ERROR_OF_TAGS_NAME;
+import static com.mjc.school.validation.CustomValidator.TAG_NAME_MAX_LENGTH;
+import static com.mjc.school.validation.CustomValidator.TAG_NAME_MIN_LENGTH;
+
+/**
+ * Bulk import of news and comments from NDJSON or CSV (header line first, tags separated by {@code |}).
+ * Lines are parsed and validated as they are read; valid ones are written {@code import.batch-size}
+ * at a time, each batch in its own transaction. A bad line is reported and skipped, and a batch the
+ * database rejects fails only its own lines. Progress, with that batch's errors, is reported after
+ * every batch, and a final report has {@code done} set.
+ */
+@Service
+@RequiredArgsConstructor
+public class BulkImportService {
+    private static final String TAG_SEPARATOR = "\\|";
+
+    private final ImportBatchWriter batchWriter;
+    private final CustomValidator customValidator;
+    private final ObjectMapper objectMapper;
+
+    @Value("${import.batch-size:1000}")
+    private int batchSize;
+
+    public void importNews(Reader source, ImportFormat format, Consumer<ImportProgressDtoResponse> progress) {
+        run(source, format, NewsDtoRequest.class, this::newsFromCsv, this::validateNews, batchWriter::writeNews, progress);
+    }
+
+    public void importComments(Reader source, ImportFormat format, Consumer<ImportProgressDtoResponse> progress) {
+        run(source, format, CommentDtoRequest.class, this::commentFromCsv, this::validateComment, batchWriter::writeComments, progress);
+    }
+
+    private <R> void run(Reader source, ImportFormat format, Class<R> type, Function<Map<String, String>, R> fromCsv,
+                         Consumer<R> validator, Function<List<ImportLine<R>>, List<ImportErrorDtoResponse>> writer,
+                         Consumer<ImportProgressDtoResponse> progress) {
+        ImportRun<R> run = new ImportRun<>(writer, progress);
+        try (BufferedReader reader = new BufferedReader(source)) {
+            List<String> header = null;
+            long lineNumber = 0;
+            String text;
+            while ((text = reader.readLine()) != null) {
+                lineNumber++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                try {
+                    if (format == ImportFormat.CSV && header == null) {
+                        header = CsvLineParser.parse(text);
+                        continue;
+                    }
+                    R request = format == ImportFormat.CSV
+                            ? fromCsv.apply(CsvLineParser.toRecord(header, text))
+                            : objectMapper.readValue(text, type);
+                    if (request == null) {
+                        throw new ValidatorException(String.format(ErrorCodes.VALIDATION.getErrorMessage(), "line must be an object"));
+                    }
+                    validator.accept(request);
+                    run.accept(new ImportLine<>(lineNumber, request));
+                } catch (JsonProcessingException e) {
+                    run.reject(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+                } catch (ValidatorException | ValidationException | IllegalArgumentException e) {
+                    run.reject(lineNumber, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        run.finish();
+    }
+
+    private NewsDtoRequest newsFromCsv(Map<String, String> record) {
+        String tagNames = record.get("tagNames");
+        return new NewsDtoRequest(record.get("title"), record.get("content"), record.get("authorName"),
+                tagNames == null || tagNames.isBlank() ? null : new ArrayList<>(Arrays.asList(tagNames.split(TAG_SEPARATOR))));
+    }
+
+    private CommentDtoRequest commentFromCsv(Map<String, String> record) {
+        String newsId = record.get("newsId");
+        try {
+            return new CommentDtoRequest(record.get("content"), newsId == null || newsId.isBlank() ? null : Long.valueOf(newsId.trim()));
+        } catch (NumberFormatException e) {
+            throw new ValidatorException(String.format(ErrorCodes.VALIDATION.getErrorMessage(), "newsId must be a number"));
+        }
+    }
+
+    private void validateNews(NewsDtoRequest news) {
+        require(news.title(), "title");
+        require(news.content(), "content");
+        require(news.authorName(), "authorName");
+        customValidator.validateNews(news);
+        customValidator.validateLength(news.authorName(), AUTHOR_NAME_MIN_LENGTH, AUTHOR_NAME_MAX_LENGTH, ERROR_OF_AUTHORS_NAME);
+        if (news.tagNames().isEmpty()) {
+            throw new ValidatorException("Please specify tag names");
+        }
+        for (String tag : news.tagNames()) {
+            require(tag, "tag name");
+            customValidator.validateLength(tag, TAG_NAME_MIN_LENGTH, TAG_NAME_MAX_LENGTH, ERROR_OF_TAGS_NAME);
+        }
+    }
+
+    private void validateComment(CommentDtoRequest comment) {
+        require(comment.content(), "content");
+        if (comment.newsId() == null) {
+            throw new ValidatorException(String.format(ErrorCodes.VALIDATION.getErrorMessage(), "newsId is required"));
+        }
+        customValidator.validateComment(comment);
+    }
+
+    private static void require(String value, String field) {
+        if (value == null || value.isBlank()) {
+            throw new ValidatorException(String.format(ErrorCodes.VALIDATION.getErrorMessage(), field + " is required"));
+        }
+    }
+
+    private final class ImportRun<R> {
+        private final Function<List<ImportLine<R>>, List<ImportErrorDtoResponse>> writer;
+        private final Consumer<ImportProgressDtoResponse> progress;
+        private final List<ImportLine<R>> batch = new ArrayList<>();
+        private final List<ImportErrorDtoResponse> errors = new ArrayList<>();
+        private long processed;
+        private long imported;
+        private long failed;
+
+        ImportRun(Function<List<ImportLine<R>>, List<ImportErrorDtoResponse>> writer, Consumer<ImportProgressDtoResponse> progress) {
+            this.writer = writer;
+            this.progress = progress;
+        }
+
+        void accept(ImportLine<R> line) {
+            processed++;
+            batch.add(line);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long line, String message) {
+            processed++;
+            failed++;
+            errors.add(new ImportErrorDtoResponse(line, message));
+            if (errors.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void finish() {
+            if (!batch.isEmpty() || !errors.isEmpty()) {
+                flush();
+            }
+            progress.accept(new ImportProgressDtoResponse(processed, imported, failed, List.of(), true));
+        }
+
+        private void flush() {
+            if (!batch.isEmpty()) {
+                List<ImportErrorDtoResponse> batchErrors;
+                try {
+                    batchErrors = writer.apply(batch);
+                } catch (RuntimeException e) {
+                    String message = "Batch rejected: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                    batchErrors = batch.stream().map(line -> new ImportErrorDtoResponse(line.line(), message)).toList();
+                }
+                imported += batch.size() - batchErrors.size();
+                failed += batchErrors.size();
+                errors.addAll(batchErrors);
+                batch.clear();
+            }
+            progress.accept(new ImportProgressDtoResponse(processed, imported, failed, List.copyOf(errors), false));
+            errors.clear();
+        }
+    }
+}
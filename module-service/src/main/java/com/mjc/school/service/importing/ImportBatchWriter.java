@@ -0,0 +1,101 @@
+package com.mjc.school.service.importing;
+
+import com.mjc.school.dto.CommentDtoRequest;
+import com.mjc.school.dto.ImportErrorDtoResponse;
+import com.mjc.school.dto.NewsDtoRequest;
+import com.mjc.school.mapper.CommentMapper;
+import com.mjc.school.mapper.NewsMapper;
+import com.mjc.school.model.Author;
+import com.mjc.school.model.Comment;
+import com.mjc.school.model.News;
+import com.mjc.school.model.Tag;
+import com.mjc.school.repository.impl.AuthorRepository;
+import com.mjc.school.repository.impl.CommentRepository;
+import com.mjc.school.repository.impl.NewsRepository;
+import com.mjc.school.repository.impl.TagRepository;
+import com.mjc.school.service.cache.CacheConfig;
+import com.mjc.school.service.search.NewsSearchIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.mjc.school.exception.ErrorCodes.NO_NEWS_WITH_PROVIDED_ID;
+
+/**
+ * Writes one already-validated import batch per transaction. Checks that need the database are done
+ * for the whole batch in one query each, authors and tags are resolved in bulk, and the rows go out
+ * through {@code createAll} so Hibernate sends them as JDBC batches.
+ */
+@Component
+@RequiredArgsConstructor
+public class ImportBatchWriter {
+    private final NewsRepository newsRepository;
+    private final AuthorRepository authorRepository;
+    private final TagRepository tagRepository;
+    private final CommentRepository commentRepository;
+    private final NewsMapper newsMapper;
+    private final CommentMapper commentMapper;
+    private final NewsSearchIndex newsSearchIndex;
+
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.AUTHORS_WITH_NEWS, CacheConfig.MISSING_NEWS, CacheConfig.MISSING_AUTHOR,
+            CacheConfig.MISSING_TAG}, allEntries = true)
+    public List<ImportErrorDtoResponse> writeNews(List<ImportLine<NewsDtoRequest>> lines) {
+        List<ImportErrorDtoResponse> errors = new ArrayList<>();
+        Set<String> takenTitles = newsRepository.readExistingTitles(lines.stream().map(line -> line.request().title()).toList());
+        List<ImportLine<NewsDtoRequest>> accepted = new ArrayList<>(lines.size());
+        for (ImportLine<NewsDtoRequest> line : lines) {
+            if (takenTitles.add(line.request().title())) {
+                accepted.add(line);
+            } else {
+                errors.add(new ImportErrorDtoResponse(line.line(), "Title of news must be unique"));
+            }
+        }
+
+        Map<String, Author> authors = byName(authorRepository.readOrCreateByNames(
+                accepted.stream().map(line -> line.request().authorName()).toList()), Author::getName);
+        Map<String, Tag> tags = byName(tagRepository.readOrCreateByNames(
+                accepted.stream().flatMap(line -> line.request().tagNames().stream()).toList()), Tag::getName);
+        List<News> news = new ArrayList<>(accepted.size());
+        for (ImportLine<NewsDtoRequest> line : accepted) {
+            News model = newsMapper.DTONewsToModel(line.request());
+            model.setAuthorModel(authors.get(line.request().authorName()));
+            model.setTags(line.request().tagNames().stream().distinct().map(tags::get).collect(Collectors.toCollection(ArrayList::new)));
+            news.add(model);
+        }
+        newsRepository.createAll(news).forEach(created -> newsSearchIndex.index(created.getId(), created.getTitle(), created.getContent()));
+        return errors;
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.NEWS_BY_ID, allEntries = true)
+    public List<ImportErrorDtoResponse> writeComments(List<ImportLine<CommentDtoRequest>> lines) {
+        List<ImportErrorDtoResponse> errors = new ArrayList<>();
+        Set<Long> existingNews = newsRepository.readExistingIds(lines.stream().map(line -> line.request().newsId()).distinct().toList());
+        List<Comment> comments = new ArrayList<>(lines.size());
+        for (ImportLine<CommentDtoRequest> line : lines) {
+            Long newsId = line.request().newsId();
+            if (!existingNews.contains(newsId)) {
+                errors.add(new ImportErrorDtoResponse(line.line(), String.format(NO_NEWS_WITH_PROVIDED_ID.getErrorMessage(), newsId)));
+                continue;
+            }
+            Comment model = commentMapper.DtoCommentToModel(line.request());
+            model.setNewsModel(newsRepository.getReference(newsId));
+            comments.add(model);
+        }
+        commentRepository.createAll(comments);
+        return errors;
+    }
+
+    private static <T> Map<String, T> byName(List<T> entities, Function<T, String> name) {
+        return entities.stream().collect(Collectors.toMap(name, Function.identity()));
+    }
+}
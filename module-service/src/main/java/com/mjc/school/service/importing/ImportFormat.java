@@ -0,0 +1,9 @@
+package com.mjc.school.service.importing;
+
+public enum ImportFormat {
+    NDJSON, CSV;
+
+    public static ImportFormat fromContentType(String contentType) {
+        return contentType != null && contentType.toLowerCase().startsWith("text/csv") ? CSV : NDJSON;
+    }
+}
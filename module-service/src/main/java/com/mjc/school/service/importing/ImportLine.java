@@ -0,0 +1,4 @@
+package com.mjc.school.service.importing;
+
+record ImportLine<R>(long line, R request) {
+}
@@ -0,0 +1,46 @@
+package com.mjc.school.service.retry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.OptimisticLockException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs an idempotent update when it loses an optimistic-lock race. Each attempt must open its own
+ * transaction, so this is called from outside the transactional service, never from inside it.
+ */
+@Component
+public class OptimisticRetry {
+    @Value("${optimistic.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${optimistic.retry.backoff-ms:20}")
+    private long backoffMs;
+
+    public <R> R run(Supplier<R> update) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return update.get();
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                pause(attempt);
+            }
+        }
+    }
+
+    private void pause(int attempt) {
+        // Jittered linear backoff keeps competing writers from retrying in lockstep.
+        long delay = backoffMs * attempt + ThreadLocalRandom.current().nextLong(backoffMs + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying update", e);
+        }
+    }
+}
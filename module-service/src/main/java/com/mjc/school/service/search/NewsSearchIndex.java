@@ -0,0 +1,239 @@
+package com.mjc.school.service.search;
+
+import com.mjc.school.repository.impl.NewsRepository;
+import com.mjc.school.service.cache.CacheConfig;
+import com.mjc.school.service.cache.ExternalCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.Tuple;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-process inverted index over news title and content, enabled with {@code search.index.enabled}.
+ * Postings are kept per term in primitive arrays; changes from the news service are applied after the
+ * surrounding transaction commits, and the whole index is rebuilt from the database at startup. Writes on
+ * other nodes arrive through the cache invalidation bus: an evicted id is read again, a clear rebuilds.
+ */
+@Component
+@RequiredArgsConstructor
+public class NewsSearchIndex implements ExternalCache {
+    private static final int TITLE_WEIGHT = 2;
+
+    private final NewsRepository newsRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, String[]> documentTerms = new HashMap<>();
+
+    @Value("${search.index.enabled:false}")
+    private boolean enabled;
+
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        ready = false;
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentTerms.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try (Stream<Tuple> rows = newsRepository.streamSearchDocuments()) {
+            rows.forEach(row -> put(row.get(0, Long.class), row.get(1, String.class), row.get(2, String.class)));
+        }
+        ready = true;
+    }
+
+    @Override
+    public String name() {
+        return CacheConfig.NEWS_SEARCH_INDEX;
+    }
+
+    @Override
+    public void evict(Long id) {
+        if (enabled) {
+            newsRepository.readSearchDocument(id).ifPresentOrElse(
+                    row -> put(id, row.get(1, String.class), row.get(2, String.class)),
+                    () -> removeLocked(id));
+        }
+    }
+
+    @Override
+    @Transactional
+    public void clear() {
+        rebuild();
+    }
+
+    public void index(Long id, String title, String content) {
+        if (enabled) {
+            afterCommit(() -> put(id, title, content));
+        }
+    }
+
+    public void remove(Long id) {
+        if (enabled) {
+            afterCommit(() -> removeLocked(id));
+        }
+    }
+
+    /**
+     * Ids of news containing every term of {@code text}, best match first. Scores are tf-idf with title
+     * occurrences counted {@value #TITLE_WEIGHT} times.
+     */
+    public List<Long> search(String text) {
+        List<String> terms = List.copyOf(new LinkedHashSet<>(tokenize(text)));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int documentCount = documentTerms.size();
+            Map<Long, double[]> scores = new HashMap<>();
+            for (int t = 0; t < terms.size(); t++) {
+                Postings termPostings = postings.get(terms.get(t));
+                if (termPostings == null) {
+                    return List.of();
+                }
+                double idf = Math.log(1 + (double) documentCount / termPostings.size);
+                for (int i = 0; i < termPostings.size; i++) {
+                    long id = termPostings.ids[i];
+                    double[] score = t == 0 ? scores.computeIfAbsent(id, key -> new double[2]) : scores.get(id);
+                    if (score != null && score[1] == t) {
+                        score[0] += termPostings.frequencies[i] * idf;
+                        score[1]++;
+                    }
+                }
+            }
+            int termCount = terms.size();
+            return scores.entrySet().stream()
+                    .filter(entry -> entry.getValue()[1] == termCount)
+                    .sorted(Comparator.comparingDouble((Map.Entry<Long, double[]> entry) -> entry.getValue()[0]).reversed()
+                            .thenComparing(Map.Entry::getKey, Comparator.reverseOrder()))
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(Long id, String title, String content) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        tokenize(title).forEach(term -> frequencies.merge(term, TITLE_WEIGHT, Integer::sum));
+        tokenize(content).forEach(term -> frequencies.merge(term, 1, Integer::sum));
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+            frequencies.forEach((term, frequency) -> postings.computeIfAbsent(term, key -> new Postings()).add(id, frequency));
+            documentTerms.put(id, frequencies.keySet().toArray(new String[0]));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeDocument(Long id) {
+        String[] terms = documentTerms.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Postings termPostings = postings.get(term);
+            if (termPostings != null && termPostings.remove(id) && termPostings.size == 0) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        private void add(long id, int frequency) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            ids[size] = id;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        private boolean remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    size--;
+                    ids[i] = ids[size];
+                    frequencies[i] = frequencies[size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
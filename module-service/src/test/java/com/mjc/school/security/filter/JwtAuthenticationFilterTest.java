@@ -1,8 +1,11 @@
 package com.mjc.school.security.filter;
 
+import com.mjc.school.security.service.JwtClaims;
 import com.mjc.school.security.service.JwtTokenService;
+import com.mjc.school.service.cache.CacheConfig;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
@@ -12,9 +15,14 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import javax.servlet.FilterChain;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.time.Instant;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -32,7 +40,7 @@ class JwtAuthenticationFilterTest {
     void setUp() {
         jwtTokenService = mock(JwtTokenService.class);
         userDetailsService = mock(UserDetailsService.class);
-        filter = new JwtAuthenticationFilter(jwtTokenService, userDetailsService);
+        filter = new JwtAuthenticationFilter(jwtTokenService, userDetailsService, new ConcurrentMapCacheManager(CacheConfig.USER_DETAILS));
 
         request = mock(HttpServletRequest.class);
         response = mock(HttpServletResponse.class);
@@ -67,14 +75,15 @@ class JwtAuthenticationFilterTest {
         String username = "testUser";
 
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtTokenService.getUsernameFromToken(token)).thenReturn(username);
+        JwtClaims claims = new JwtClaims(username, 1L, "ROLE_USER", Instant.now(), Instant.now().plusSeconds(3600));
+        when(jwtTokenService.verify(token)).thenReturn(Optional.of(claims));
 
         UserDetails userDetails = User.withUsername(username)
                 .password("pass")
                 .authorities("ROLE_USER")
                 .build();
         when(userDetailsService.loadUserByUsername(username)).thenReturn(userDetails);
-        when(jwtTokenService.isTokenValid(token, userDetails)).thenReturn(true);
+        when(jwtTokenService.isTokenValid(claims, userDetails)).thenReturn(true);
 
         filter.doFilterInternal(request, response, filterChain);
 
@@ -86,20 +95,57 @@ class JwtAuthenticationFilterTest {
         assertThat(authentication.getAuthorities()).extracting("authority").contains("ROLE_USER");
     }
 
+    @Test
+    void doFilterInternal_ShouldLoadUserOnce_WhenSameTokenIsReused() throws Exception {
+        String token = "valid.jwt.token";
+        String username = "testUser";
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        JwtClaims claims = new JwtClaims(username, 1L, "ROLE_USER", Instant.now(), Instant.now().plusSeconds(3600));
+        when(jwtTokenService.verify(token)).thenReturn(Optional.of(claims));
+
+        UserDetails userDetails = User.withUsername(username)
+                .password("pass")
+                .authorities("ROLE_USER")
+                .build();
+        when(userDetailsService.loadUserByUsername(username)).thenReturn(userDetails);
+        when(jwtTokenService.isTokenValid(claims, userDetails)).thenReturn(true);
+
+        filter.doFilterInternal(request, response, filterChain);
+        SecurityContextHolder.clearContext();
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(userDetailsService, times(1)).loadUserByUsername(username);
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo(username);
+    }
+
+    @Test
+    void doFilterInternal_ShouldNotLoadUser_WhenTokenDoesNotVerify() throws Exception {
+        when(request.getHeader("Authorization")).thenReturn("Bearer forged.jwt.token");
+        when(jwtTokenService.verify("forged.jwt.token")).thenReturn(Optional.empty());
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        verify(userDetailsService, never()).loadUserByUsername(any());
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
     @Test
     void doFilterInternal_ShouldNotAuthenticate_WhenInvalidToken() throws Exception {
         String token = "invalid.jwt.token";
         String username = "testUser";
 
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtTokenService.getUsernameFromToken(token)).thenReturn(username);
+        JwtClaims claims = new JwtClaims(username, 1L, "ROLE_USER", Instant.now(), Instant.now().plusSeconds(3600));
+        when(jwtTokenService.verify(token)).thenReturn(Optional.of(claims));
 
         UserDetails userDetails = User.withUsername(username)
                 .password("pass")
                 .authorities("ROLE_USER")
                 .build();
         when(userDetailsService.loadUserByUsername(username)).thenReturn(userDetails);
-        when(jwtTokenService.isTokenValid(token, userDetails)).thenReturn(false);
+        when(jwtTokenService.isTokenValid(claims, userDetails)).thenReturn(false);
 
         filter.doFilterInternal(request, response, filterChain);
 
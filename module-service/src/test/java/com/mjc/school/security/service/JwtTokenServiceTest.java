@@ -7,6 +7,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.Date;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -111,4 +113,39 @@ class JwtTokenServiceTest {
 
         assertTrue(expiration.after(new Date()));
     }
+
+    @Test
+    void verify_ShouldReturnClaimsOfOwnToken() {
+        User user = User.builder()
+                .id(6L)
+                .username("carol")
+                .password("pwd")
+                .role(Role.ROLE_ADMIN)
+                .build();
+
+        String token = jwtTokenService.generateToken(user);
+
+        JwtClaims claims = jwtTokenService.verify(token).orElseThrow();
+        assertEquals("carol", claims.subject());
+        assertEquals(6L, claims.userId());
+        assertEquals("ROLE_ADMIN", claims.role());
+        assertTrue(claims.expiresAt().isAfter(claims.issuedAt()));
+    }
+
+    @Test
+    void verify_ShouldReturnEmpty_WhenPayloadIsTampered() {
+        User user = User.builder()
+                .id(7L)
+                .username("dave")
+                .password("pwd")
+                .role(Role.ROLE_USER)
+                .build();
+        String token = jwtTokenService.generateToken(user);
+        String[] parts = token.split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"sub\":\"admin\",\"exp\":4102444800}".getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(jwtTokenService.verify(parts[0] + "." + forgedPayload + "." + parts[2]).isEmpty());
+        assertTrue(jwtTokenService.verify("not-a-token").isEmpty());
+    }
 }
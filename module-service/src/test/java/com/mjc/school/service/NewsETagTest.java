@@ -0,0 +1,36 @@
+package com.mjc.school.service;
+
+import com.mjc.school.dto.AuthorDtoResponse;
+import com.mjc.school.dto.CommentDtoResponse;
+import com.mjc.school.dto.NewsDtoResponse;
+import com.mjc.school.dto.TagDtoResponse;
+import com.mjc.school.repository.projection.ValidatorView;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NewsETagTest {
+
+    @Test
+    void of_ShouldMatchTheValidatorOfTheSameRows() {
+        NewsDtoResponse news = news(List.of(new TagDtoResponse(5L, "sport", 1L), new TagDtoResponse(3L, "news", 0L)),
+                List.of(new CommentDtoResponse(9L, "Nice", "", "", 1L, 2L)));
+        ValidatorView validator = new ValidatorView(4L, ValidatorView.fingerprint("1:7", "3:0,5:1", "9:2"), null);
+
+        assertThat(NewsETag.of(news)).isEqualTo(NewsETag.of(validator)).startsWith("4-");
+    }
+
+    @Test
+    void of_ShouldTellApartRowsWhoseSumsCollide() {
+        NewsDtoResponse first = news(List.of(new TagDtoResponse(1L, "a", 31L), new TagDtoResponse(2L, "b", 0L)), List.of());
+        NewsDtoResponse second = news(List.of(new TagDtoResponse(1L, "a", 0L), new TagDtoResponse(2L, "b", 31L)), List.of());
+
+        assertThat(NewsETag.of(first)).isNotEqualTo(NewsETag.of(second));
+    }
+
+    private static NewsDtoResponse news(List<TagDtoResponse> tags, List<CommentDtoResponse> comments) {
+        return new NewsDtoResponse(1L, "Title", "Content", "", "", new AuthorDtoResponse(1L, "Author", "", "", 7L), tags, comments, 4L);
+    }
+}
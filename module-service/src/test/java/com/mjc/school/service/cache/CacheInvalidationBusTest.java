@@ -0,0 +1,104 @@
+package com.mjc.school.service.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheInvalidationBusTest {
+
+    private CacheInvalidationBus bus;
+    private ConcurrentMapCacheManager localCaches;
+
+    @BeforeEach
+    void setUp() {
+        bus = new CacheInvalidationBus();
+        ReflectionTestUtils.setField(bus, "enabled", true);
+        ReflectionTestUtils.setField(bus, "maxKeys", 2);
+        localCaches = new ConcurrentMapCacheManager(CacheConfig.NEWS_BY_ID, CacheConfig.TAG_BY_ID);
+        bus.bind(localCaches);
+    }
+
+    @Test
+    void publishEvict_ShouldCoalesceKeysAndFallBackToClearing() {
+        bus.publishEvict(CacheConfig.NEWS_BY_ID, 1L);
+        bus.publishEvict(CacheConfig.NEWS_BY_ID, 1L);
+        bus.publishEvict(CacheConfig.NEWS_BY_ID, 2L);
+        bus.publishEvict(CacheConfig.TAG_BY_ID, 1L);
+        Map<String, Set<Object>> pending = pending();
+        assertThat(pending.get(CacheConfig.NEWS_BY_ID)).containsExactlyInAnyOrder(1L, 2L);
+
+        bus.publishEvict(CacheConfig.NEWS_BY_ID, 3L);
+
+        assertThat(pending.get(CacheConfig.NEWS_BY_ID)).containsExactly("*");
+        assertThat(pending.get(CacheConfig.TAG_BY_ID)).containsExactly(1L);
+    }
+
+    @Test
+    void apply_ShouldEvictListedKeysAndClearWholeCaches() {
+        localCaches.getCache(CacheConfig.NEWS_BY_ID).put(1L, "first");
+        localCaches.getCache(CacheConfig.NEWS_BY_ID).put(2L, "second");
+        localCaches.getCache(CacheConfig.TAG_BY_ID).put(1L, "tag");
+
+        bus.apply(CacheConfig.NEWS_BY_ID + "=1;" + CacheConfig.TAG_BY_ID + "=*;unknown=5");
+
+        assertThat(localCaches.getCache(CacheConfig.NEWS_BY_ID).get(1L)).isNull();
+        assertThat(localCaches.getCache(CacheConfig.NEWS_BY_ID).get(2L)).isNotNull();
+        assertThat(localCaches.getCache(CacheConfig.TAG_BY_ID).get(1L)).isNull();
+    }
+
+    @Test
+    void apply_ShouldPassNamesWithoutALocalCacheToTheExternalCache() {
+        List<String> applied = new ArrayList<>();
+        ExternalCache searchIndex = new ExternalCache() {
+            @Override
+            public String name() {
+                return CacheConfig.NEWS_SEARCH_INDEX;
+            }
+
+            @Override
+            public void evict(Long id) {
+                applied.add("evict " + id);
+            }
+
+            @Override
+            public void clear() {
+                applied.add("clear");
+            }
+        };
+        bus.setExternalCaches(new StaticListableBeanFactory(Map.of("newsSearchIndex", searchIndex)).getBeanProvider(ExternalCache.class));
+
+        bus.apply(CacheConfig.NEWS_SEARCH_INDEX + "=4,5;" + CacheConfig.NEWS_JSON + "=4");
+        bus.apply(CacheConfig.NEWS_SEARCH_INDEX + "=*");
+
+        assertThat(applied).containsExactly("evict 4", "evict 5", "clear");
+    }
+
+    @Test
+    void payloads_ShouldSplitLargeBatchesUnderTheNotifyLimit() {
+        Map<String, Set<Object>> batch = new LinkedHashMap<>();
+        batch.put(CacheConfig.NEWS_BY_ID, new HashSet<>(LongStream.range(1_000_000_000L, 1_000_002_000L).boxed().toList()));
+        batch.put(CacheConfig.TAG_BY_ID, Set.of("*"));
+
+        List<String> payloads = CacheInvalidationBus.payloads(batch);
+
+        assertThat(payloads).hasSizeGreaterThan(1).allMatch(payload -> payload.length() < 8_000);
+        assertThat(String.join(";", payloads).split("[,;=]")).contains("1000001999", "*");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Set<Object>> pending() {
+        return (Map<String, Set<Object>>) ReflectionTestUtils.getField(bus, "pending");
+    }
+}
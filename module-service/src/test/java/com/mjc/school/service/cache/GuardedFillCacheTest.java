@@ -0,0 +1,88 @@
+package com.mjc.school.service.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GuardedFillCacheTest {
+
+    @Test
+    void put_ShouldFillAfterAMissWithoutEvictions() {
+        GuardedFillCache cache = new GuardedFillCache(new ConcurrentMapCache("news"), Duration.ZERO, 100);
+
+        assertThat(cache.get(1L)).isNull();
+        cache.put(1L, "v1");
+
+        assertThat(cache.get(1L).get()).isEqualTo("v1");
+    }
+
+    @Test
+    void put_ShouldDropAFillThatStartedBeforeAnEviction() {
+        GuardedFillCache cache = new GuardedFillCache(new ConcurrentMapCache("news"), Duration.ZERO, 100);
+
+        assertThat(cache.get(1L)).isNull();
+        cache.evict(1L);
+        cache.put(1L, "v1");
+
+        assertThat(cache.get(1L)).isNull();
+        cache.put(1L, "v2");
+        assertThat(cache.get(1L).get()).isEqualTo("v2");
+    }
+
+    @Test
+    void put_ShouldDropAFillThatStartedBeforeAClear() {
+        GuardedFillCache cache = new GuardedFillCache(new ConcurrentMapCache("news"), Duration.ZERO, 100);
+
+        assertThat(cache.get(1L)).isNull();
+        cache.clear();
+        cache.put(1L, "v1");
+
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    @Test
+    void put_ShouldDropAFillStartedWithinTheLagOfAnEviction() {
+        GuardedFillCache cache = new GuardedFillCache(new ConcurrentMapCache("news"), Duration.ofHours(1), 100);
+
+        cache.evict(1L);
+        assertThat(cache.get(1L)).isNull();
+        cache.put(1L, "replica copy");
+        assertThat(cache.get(1L)).isNull();
+
+        assertThat(cache.get(2L)).isNull();
+        cache.put(2L, "other");
+        assertThat(cache.get(2L).get()).isEqualTo("other");
+    }
+
+    @Test
+    void put_ShouldNotBeJudgedByTheFillOfAFailedLoad() {
+        GuardedFillCache cache = new GuardedFillCache(new ConcurrentMapCache("news"), Duration.ZERO, 100);
+        cache.put(2L, "cached");
+
+        assertThat(cache.get(1L)).isNull();
+        cache.evict(1L);
+        assertThat(cache.get(2L).get()).isEqualTo("cached");
+        cache.put(1L, "v1");
+
+        assertThat(cache.get(1L).get()).isEqualTo("v1");
+    }
+
+    @Test
+    void get_ShouldForgetTheFillWhenTheLoaderFails() {
+        GuardedFillCache cache = new GuardedFillCache(new ConcurrentMapCache("news"), Duration.ZERO, 100);
+
+        assertThat(cache.get(1L)).isNull();
+        cache.evict(1L);
+        assertThatThrownBy(() -> cache.get(1L, () -> {
+            throw new IllegalStateException("not found");
+        })).isInstanceOf(Cache.ValueRetrievalException.class);
+        cache.put(1L, "v1");
+
+        assertThat(cache.get(1L).get()).isEqualTo("v1");
+    }
+}
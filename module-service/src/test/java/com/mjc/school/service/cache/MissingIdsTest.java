@@ -0,0 +1,58 @@
+package com.mjc.school.service.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MissingIdsTest {
+    private final MissingIds missingIds = new MissingIds(new ConcurrentMapCacheManager(CacheConfig.MISSING_NEWS));
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void remember_ShouldKeepAMissReadFromThePrimary() {
+        missingIds.remember(CacheConfig.MISSING_NEWS, 1L);
+
+        assertThat(missingIds.isMissing(CacheConfig.MISSING_NEWS, 1L)).isTrue();
+    }
+
+    @Test
+    void remember_ShouldIgnoreAMissReadFromAReplica() {
+        TransactionSynchronizationManager.initSynchronization();
+        ReplicaReads.markCurrentTransaction();
+
+        missingIds.remember(CacheConfig.MISSING_NEWS, 1L);
+
+        assertThat(missingIds.isMissing(CacheConfig.MISSING_NEWS, 1L)).isFalse();
+    }
+
+    @Test
+    void remember_ShouldDropAMissReadBeforeTheIdWasForgotten() {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(new GuardedFillCache(new ConcurrentMapCache(CacheConfig.MISSING_NEWS), Duration.ZERO, 100)));
+        cacheManager.afterPropertiesSet();
+        MissingIds guarded = new MissingIds(cacheManager);
+
+        assertThat(guarded.isMissing(CacheConfig.MISSING_NEWS, 1L)).isFalse();
+        guarded.forget(CacheConfig.MISSING_NEWS, 1L);
+        guarded.remember(CacheConfig.MISSING_NEWS, 1L);
+
+        assertThat(guarded.isMissing(CacheConfig.MISSING_NEWS, 1L)).isFalse();
+    }
+}
@@ -0,0 +1,66 @@
+package com.mjc.school.service.cache;
+
+import com.mjc.school.dto.CacheStatsDtoResponse;
+import com.mjc.school.exception.ElementNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResponseCacheServiceTest {
+
+    private CacheManager cacheManager;
+    private ResponseCacheService responseCacheService;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new CacheConfig().cacheManager(Duration.ofSeconds(30), 100, Duration.ofMinutes(10), Duration.ofSeconds(5), 100, Duration.ofMinutes(1),
+                100, Duration.ofMinutes(1), new CacheInvalidationBus());
+        responseCacheService = new ResponseCacheService(cacheManager);
+    }
+
+    @Test
+    void readByName_ShouldReportHitsAndMisses() {
+        Cache news = cacheManager.getCache(CacheConfig.NEWS_BY_ID);
+        news.put(1L, "news");
+        news.get(1L);
+        news.get(2L);
+
+        CacheStatsDtoResponse stats = responseCacheService.readByName(CacheConfig.NEWS_BY_ID);
+
+        assertThat(stats.size()).isEqualTo(1);
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.misses()).isEqualTo(1);
+        assertThat(stats.hitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    void readAll_ShouldListEveryConfiguredCache() {
+        assertThat(responseCacheService.readAll()).extracting(CacheStatsDtoResponse::name)
+                .containsExactly(CacheConfig.AUTHOR_BY_ID, CacheConfig.AUTHORS_WITH_NEWS, CacheConfig.COMMENT_BY_ID,
+                        CacheConfig.MISSING_AUTHOR, CacheConfig.MISSING_NEWS, CacheConfig.MISSING_TAG,
+                        CacheConfig.NEWS_BY_ID, CacheConfig.TAG_BY_ID, CacheConfig.USER_DETAILS);
+    }
+
+    @Test
+    void clear_ShouldEmptyOnlyTheNamedCache() {
+        cacheManager.getCache(CacheConfig.NEWS_BY_ID).put(1L, "news");
+        cacheManager.getCache(CacheConfig.TAG_BY_ID).put(1L, "tag");
+
+        responseCacheService.clear(CacheConfig.NEWS_BY_ID);
+
+        assertThat(cacheManager.getCache(CacheConfig.NEWS_BY_ID).get(1L)).isNull();
+        assertThat(cacheManager.getCache(CacheConfig.TAG_BY_ID).get(1L)).isNotNull();
+    }
+
+    @Test
+    void clear_ShouldThrow_WhenCacheDoesNotExist() {
+        assertThatThrownBy(() -> responseCacheService.clear("unknown"))
+                .isInstanceOf(ElementNotFoundException.class);
+    }
+}
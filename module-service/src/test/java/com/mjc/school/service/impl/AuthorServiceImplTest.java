@@ -2,11 +2,14 @@ package com.mjc.school.service.impl;
 
 import com.mjc.school.dto.AuthorDtoRequest;
 import com.mjc.school.dto.AuthorDtoResponse;
+import com.mjc.school.dto.AuthorNewsCountDtoResponse;
 import com.mjc.school.exception.ElementNotFoundException;
 import com.mjc.school.exception.ValidatorException;
 import com.mjc.school.mapper.AuthorMapper;
 import com.mjc.school.model.Author;
 import com.mjc.school.repository.impl.AuthorRepository;
+import com.mjc.school.repository.projection.AuthorNewsCountView;
+import com.mjc.school.service.cache.MissingIds;
 import com.mjc.school.validation.CustomValidator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,6 +20,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static com.mjc.school.exception.ErrorCodes.INVALID_VALUE_OF_SORTING;
@@ -42,6 +46,9 @@ class AuthorServiceImplTest {
     @Mock
     private CustomValidator customValidator;
 
+    @Mock
+    private MissingIds missingIds;
+
     @InjectMocks
     private AuthorServiceImpl authorServiceImpl;
 
@@ -62,7 +69,8 @@ class AuthorServiceImplTest {
                 1L,
                 "John Doe",
                 "2025-09-27T10:00:00",
-                "2025-09-27T10:00:00"
+                "2025-09-27T10:00:00",
+                1L
         );
     }
 
@@ -195,4 +203,23 @@ class AuthorServiceImplTest {
                 .isInstanceOf(ElementNotFoundException.class)
                 .hasMessage(String.format(NO_AUTHOR_FOR_NEWS_ID.getErrorMessage(), newsId));
     }
+
+    @Test
+    void readRankedByNewsCount_ShouldReturnMappedRanking() {
+        LocalDateTime now = LocalDateTime.now();
+        List<AuthorNewsCountView> views = List.of(new AuthorNewsCountView(1L, "John Doe", now, now, 7));
+        List<AuthorNewsCountDtoResponse> ranking = List.of(new AuthorNewsCountDtoResponse(1L, "John Doe", "", "", 7));
+        when(authorRepository.readRankedByNewsCount(0, 5)).thenReturn(views);
+        when(authorMapper.ViewNewsCountListToDtoList(views)).thenReturn(ranking);
+
+        assertThat(authorServiceImpl.readRankedByNewsCount(0, 5)).isEqualTo(ranking);
+    }
+
+    @Test
+    void readRankedByNewsCount_ShouldThrowValidatorException_WhenPageInvalid() {
+        when(authorRepository.readRankedByNewsCount(-1, 5)).thenThrow(new InvalidDataAccessApiUsageException("Invalid parameters"));
+
+        assertThatThrownBy(() -> authorServiceImpl.readRankedByNewsCount(-1, 5))
+                .isInstanceOf(ValidatorException.class);
+    }
 }
@@ -10,6 +10,7 @@ import com.mjc.school.model.Comment;
 import com.mjc.school.model.News;
 import com.mjc.school.repository.impl.CommentRepository;
 import com.mjc.school.repository.impl.NewsRepository;
+import com.mjc.school.service.cache.CacheConfig;
 import com.mjc.school.validation.CustomValidator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,6 +18,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 
 import java.time.LocalDateTime;
@@ -52,6 +55,12 @@ class CommentServiceTest {
     @Mock
     private CustomValidator customValidator;
 
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache newsCache;
+
     private Comment comment;
     private News news;
     private Author author;
@@ -87,6 +96,7 @@ class CommentServiceTest {
                 "CONTENT",
                 "2025-09-27T10:00:00",
                 "2025-09-27T10:00:00",
+                1L,
                 1L
         );
     }
@@ -174,6 +184,18 @@ class CommentServiceTest {
         assertThat(result).isTrue();
     }
 
+    @Test
+    void deleteById_ShouldEvictNewsTheCommentBelongedTo() {
+        when(commentRepository.existById(1L)).thenReturn(true);
+        when(commentRepository.readById(1L)).thenReturn(Optional.of(comment));
+        when(cacheManager.getCache(CacheConfig.NEWS_BY_ID)).thenReturn(newsCache);
+        when(commentRepository.deleteById(1L)).thenReturn(true);
+
+        commentService.deleteById(1L);
+
+        verify(newsCache).evict(1L);
+    }
+
     @Test
     void deleteById_ShouldThrow_WhenNotExists() {
         when(commentRepository.existById(1L)).thenReturn(false);
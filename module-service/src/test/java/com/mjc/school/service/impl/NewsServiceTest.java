@@ -12,9 +12,15 @@ import com.mjc.school.mapper.NewsMapper;
 import com.mjc.school.model.Author;
 import com.mjc.school.model.News;
 import com.mjc.school.model.Tag;
+import com.mjc.school.repository.NewsFetchPlan;
+import com.mjc.school.repository.NewsSearchMode;
+import com.mjc.school.repository.PagedResult;
 import com.mjc.school.repository.impl.AuthorRepository;
 import com.mjc.school.repository.impl.NewsRepository;
 import com.mjc.school.repository.impl.TagRepository;
+import com.mjc.school.repository.projection.NewsView;
+import com.mjc.school.service.cache.MissingIds;
+import com.mjc.school.service.search.NewsSearchIndex;
 import com.mjc.school.validation.CustomValidator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,9 +29,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static com.mjc.school.exception.ErrorCodes.NO_NEWS_WITH_PROVIDED_ID;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -39,6 +48,7 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -55,6 +65,10 @@ class NewsServiceTest {
     private TagRepository tagRepository;
     @Mock
     private CustomValidator customValidator;
+    @Mock
+    private NewsSearchIndex newsSearchIndex;
+    @Mock
+    private MissingIds missingIds;
 
     @InjectMocks
     private NewsServiceImpl newsService;
@@ -69,23 +83,40 @@ class NewsServiceTest {
         news = new News();
         news.setId(1L);
         news.setTitle("Title");
-        response = new NewsDtoResponse(1L, "Title", "Content", "2025-09-27T12:00:00", "2025-09-27T12:00:00", null, List.of(), List.of());
+        response = new NewsDtoResponse(1L, "Title", "Content", "2025-09-27T12:00:00", "2025-09-27T12:00:00", null, List.of(), List.of(), 1L);
     }
 
     @Test
-    void readAll_ShouldReturnPage() {
-        when(newsRepository.readAll(0, 10, "id")).thenReturn(List.of(news));
+    void readAll_ShouldReturnPageWithTotalCount() {
+        when(newsRepository.readPage(0, 10, "id")).thenReturn(new PagedResult<>(List.of(news), 42));
         when(newsMapper.ModelListToDtoList(anyList())).thenReturn(List.of(response));
 
         NewsPageDtoResponse result = newsService.readAll(0, 10, "id");
 
         assertThat(result.newsList()).hasSize(1);
-        assertThat(result.totalNewsCount()).isEqualTo(1);
+        assertThat(result.totalNewsCount()).isEqualTo(42);
+        verify(newsRepository, never()).readAll(anyInt(), anyInt(), anyString());
+        verify(newsRepository).fetch(List.of(news), NewsFetchPlan.LIST);
+    }
+
+    @Test
+    void readAll_ShouldUseProjection_WhenEnabled() {
+        ReflectionTestUtils.setField(newsService, "projectionReads", true);
+        NewsView view = new NewsView(1L, "Title", "Content", null, null, null, List.of(), List.of(), 1L);
+        when(newsRepository.readAllViews(0, 10, "id")).thenReturn(new PagedResult<>(List.of(view), 42));
+        when(newsMapper.ViewListToDtoList(List.of(view))).thenReturn(List.of(response));
+
+        NewsPageDtoResponse result = newsService.readAll(0, 10, "id");
+
+        assertThat(result.newsList()).containsExactly(response);
+        assertThat(result.totalNewsCount()).isEqualTo(42);
+        verify(newsRepository, never()).readPage(anyInt(), anyInt(), anyString());
+        verify(newsRepository, never()).countNews();
     }
 
     @Test
     void readAll_ShouldThrow_WhenInvalidSort() {
-        when(newsRepository.readAll(anyInt(), anyInt(), anyString()))
+        when(newsRepository.readPage(anyInt(), anyInt(), anyString()))
                 .thenThrow(new InvalidDataAccessApiUsageException("bad sort"));
 
         assertThatThrownBy(() -> newsService.readAll(0, 10, "bad"))
@@ -94,7 +125,7 @@ class NewsServiceTest {
 
     @Test
     void readById_ShouldReturnNews() {
-        when(newsRepository.readById(1L)).thenReturn(Optional.of(news));
+        when(newsRepository.readById(1L, NewsFetchPlan.DETAIL)).thenReturn(Optional.of(news));
         when(newsMapper.ModelNewsToDTO(news)).thenReturn(response);
 
         NewsDtoResponse result = newsService.readById(1L);
@@ -104,7 +135,7 @@ class NewsServiceTest {
 
     @Test
     void readById_ShouldThrow_WhenNotFound() {
-        when(newsRepository.readById(1L)).thenReturn(Optional.empty());
+        when(newsRepository.readById(1L, NewsFetchPlan.DETAIL)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> newsService.readById(1L))
                 .isInstanceOf(ElementNotFoundException.class)
@@ -119,12 +150,19 @@ class NewsServiceTest {
         when(newsMapper.DTONewsToModel(request)).thenReturn(news);
         when(newsRepository.create(news)).thenReturn(news);
         when(newsMapper.ModelNewsToDTO(news)).thenReturn(response);
+        Author author = new Author();
+        Tag tag = new Tag();
+        when(authorRepository.readOrCreateByNames(List.of("Author"))).thenReturn(List.of(author));
+        when(tagRepository.readOrCreateByNames(List.of("tag1"))).thenReturn(List.of(tag));
 
         NewsDtoResponse result = newsService.create(request);
 
         assertThat(result).isEqualTo(response);
-        verify(authorRepository).create(any(Author.class));
-        verify(tagRepository).create(any(Tag.class));
+        assertThat(news.getAuthorModel()).isSameAs(author);
+        assertThat(news.getTags()).containsExactly(tag);
+        verify(authorRepository, never()).create(any());
+        verify(tagRepository, never()).create(any());
+        verify(newsSearchIndex).index(news.getId(), news.getTitle(), news.getContent());
     }
 
     @Test
@@ -162,6 +200,7 @@ class NewsServiceTest {
         when(newsRepository.existById(1L)).thenReturn(true);
         when(newsRepository.readNewsByTitle("Title")).thenReturn(Optional.empty());
         when(newsMapper.DTONewsToModel(request)).thenReturn(news);
+        when(authorRepository.readOrCreateByNames(List.of("Author"))).thenReturn(List.of(new Author()));
         when(newsRepository.update(any(News.class))).thenReturn(news);
         when(newsMapper.ModelNewsToDTO(news)).thenReturn(response);
 
@@ -212,13 +251,29 @@ class NewsServiceTest {
         verify(newsRepository, never()).update(any());
     }
 
+    @Test
+    void exportAll_ShouldMapInChunksAndDetachEachChunk() {
+        ReflectionTestUtils.setField(newsService, "exportChunkSize", 2);
+        News second = new News();
+        News third = new News();
+        when(newsRepository.streamAll(2)).thenReturn(Stream.of(news, second, third));
+        when(newsMapper.ModelNewsToDTO(any(News.class))).thenReturn(response);
+        List<NewsDtoResponse> exported = new ArrayList<>();
+
+        newsService.exportAll(exported::add);
+
+        assertThat(exported).hasSize(3);
+        verify(newsRepository, times(2)).fetch(anyList(), eq(NewsFetchPlan.DETAIL));
+        verify(newsRepository, times(2)).detachAll();
+    }
+
     @Test
     void readListOfNewsByParams_ShouldReturnMappedDtos() {
         List<News> newsModels = List.of(new News());
 
-        AuthorDtoResponse authorDto = new AuthorDtoResponse(1L, "Author Name", "", "");
-        List<TagDtoResponse> tags = List.of(new TagDtoResponse(1L, "tag1"));
-        List<CommentDtoResponse> comments = List.of(new CommentDtoResponse(1L, "Nice article", "", "", 1L));
+        AuthorDtoResponse authorDto = new AuthorDtoResponse(1L, "Author Name", "", "", 1L);
+        List<TagDtoResponse> tags = List.of(new TagDtoResponse(1L, "tag1", 1L));
+        List<CommentDtoResponse> comments = List.of(new CommentDtoResponse(1L, "Nice article", "", "", 1L, 1L));
 
         List<NewsDtoResponse> dtoResponses = List.of(
                 new NewsDtoResponse(
@@ -229,18 +284,19 @@ class NewsServiceTest {
                         "2025-09-28",
                         authorDto,
                         tags,
-                        comments
+                        comments,
+                        1L
                 )
         );
 
         when(newsRepository.readListOfNewsByParams(
-                anyList(), anyList(), anyString(), anyString(), anyString()))
+                anyList(), anyList(), anyString(), anyString(), anyString(), any(), anyInt(), anyInt(), anyString()))
                 .thenReturn(newsModels);
 
         when(newsMapper.ModelListToDtoList(newsModels)).thenReturn(dtoResponses);
 
         List<NewsDtoResponse> result = newsService.readListOfNewsByParams(
-                List.of("tag1"), List.of(1L), "Author Name", "Some title", "Some content");
+                List.of("tag1"), List.of(1L), "Author Name", "Some title", "Some content", NewsSearchMode.LIKE, 0, 5, "createDate,desc");
 
         assertEquals(1, result.size());
         assertEquals("Some title", result.get(0).title());
@@ -248,91 +304,97 @@ class NewsServiceTest {
         assertEquals("tag1", result.get(0).tagList().get(0).name());
         assertEquals("Nice article", result.get(0).commentList().get(0).content());
 
-        verify(newsRepository).readListOfNewsByParams(anyList(), anyList(), anyString(), anyString(), anyString());
+        verify(newsRepository).readListOfNewsByParams(anyList(), anyList(), anyString(), anyString(), anyString(), any(), anyInt(), anyInt(), anyString());
         verify(newsMapper).ModelListToDtoList(newsModels);
     }
-    @Test
-    void createNotExistTags_ShouldCreateTags_WhenValidAndNotExists() {
-        List<String> tagNames = List.of("validTag");
 
-        when(tagRepository.readTagByName("validTag")).thenReturn(Optional.empty());
+    @Test
+    void readListOfNewsByParams_ShouldUseSearchIndex_WhenIndexModeAndReady() {
+        News first = new News();
+        first.setId(1L);
+        News second = new News();
+        second.setId(2L);
+        when(newsSearchIndex.isReady()).thenReturn(true);
+        when(newsSearchIndex.search("spring boot")).thenReturn(List.of(2L, 1L));
+        when(newsRepository.readAllByIds(List.of(2L, 1L))).thenReturn(List.of(first, second));
+        when(newsMapper.ModelListToDtoList(List.of(second, first))).thenReturn(List.of(response, response));
 
-        newsService.createNotExistTags(tagNames);
+        List<NewsDtoResponse> result = newsService.readListOfNewsByParams(
+                null, null, null, "spring", "boot", NewsSearchMode.INDEX, 0, 5, "createDate,desc");
 
-        verify(tagRepository).create(any(Tag.class));
+        assertEquals(2, result.size());
+        verify(newsRepository, never()).readListOfNewsByParams(any(), any(), any(), any(), any(), any(), anyInt(), anyInt(), any());
     }
 
     @Test
-    void createNotExistTags_ShouldThrow_WhenTagTooShort() {
-        List<String> tagNames = List.of("ab");
+    void readListOfNewsByParams_ShouldThrowValidatorException_WhenSortingIsInvalid() {
+        when(newsRepository.readListOfNewsByParams(null, null, null, "title", null, NewsSearchMode.LIKE, 0, 5, "unknown,asc"))
+                .thenThrow(new InvalidDataAccessApiUsageException("Invalid parameters"));
 
         assertThrows(ValidatorException.class,
-                () -> newsService.createNotExistTags(tagNames));
+                () -> newsService.readListOfNewsByParams(null, null, null, "title", null, NewsSearchMode.LIKE, 0, 5, "unknown,asc"));
+    }
+    @Test
+    void resolveTags_ShouldReadOrCreateAllNamesAtOnce() {
+        List<String> tagNames = List.of("validTag", "otherTag");
+        List<Tag> tags = List.of(new Tag(), new Tag());
+
+        when(tagRepository.readOrCreateByNames(tagNames)).thenReturn(tags);
 
+        assertThat(newsService.resolveTags(tagNames)).containsExactlyElementsOf(tags);
+        verify(tagRepository, never()).readTagByName(anyString());
         verify(tagRepository, never()).create(any());
     }
 
     @Test
-    void createNotExistTags_ShouldThrow_WhenTagTooLong() {
-        List<String> tagNames = List.of("a".repeat(20));
+    void resolveTags_ShouldThrow_WhenTagTooShort() {
+        List<String> tagNames = List.of("ab");
 
         assertThrows(ValidatorException.class,
-                () -> newsService.createNotExistTags(tagNames));
+                () -> newsService.resolveTags(tagNames));
 
-        verify(tagRepository, never()).create(any());
+        verify(tagRepository, never()).readOrCreateByNames(any());
     }
 
     @Test
-    void createNotExistTags_ShouldNotCreate_WhenTagAlreadyExists() {
-        List<String> tagNames = List.of("validTag");
-
-        when(tagRepository.readTagByName("validTag")).thenReturn(Optional.of(new Tag()));
+    void resolveTags_ShouldThrow_WhenTagTooLong() {
+        List<String> tagNames = List.of("a".repeat(20));
 
-        newsService.createNotExistTags(tagNames);
+        assertThrows(ValidatorException.class,
+                () -> newsService.resolveTags(tagNames));
 
-        verify(tagRepository, never()).create(any());
+        verify(tagRepository, never()).readOrCreateByNames(any());
     }
 
     @Test
-    void createNotExistAuthor_ShouldCreateAuthor_WhenValidAndNotExists() {
+    void resolveAuthor_ShouldReadOrCreateAuthor_WhenValid() {
         String authorName = "ValidAuthor";
+        Author author = new Author();
 
-        when(authorRepository.readAuthorByName(authorName)).thenReturn(Optional.empty());
-
-        newsService.createNotExistAuthor(authorName);
+        when(authorRepository.readOrCreateByNames(List.of(authorName))).thenReturn(List.of(author));
 
-        verify(authorRepository).create(any(Author.class));
+        assertThat(newsService.resolveAuthor(authorName)).isSameAs(author);
+        verify(authorRepository, never()).create(any());
     }
 
     @Test
-    void createNotExistAuthor_ShouldThrow_WhenNameTooShort() {
+    void resolveAuthor_ShouldThrow_WhenNameTooShort() {
         String authorName = "aa";
 
         assertThrows(ValidatorException.class,
-                () -> newsService.createNotExistAuthor(authorName));
+                () -> newsService.resolveAuthor(authorName));
 
-        verify(authorRepository, never()).create(any());
+        verify(authorRepository, never()).readOrCreateByNames(any());
     }
 
     @Test
-    void createNotExistAuthor_ShouldThrow_WhenNameTooLong() {
+    void resolveAuthor_ShouldThrow_WhenNameTooLong() {
         String authorName = "a".repeat(20);
 
         assertThrows(ValidatorException.class,
-                () -> newsService.createNotExistAuthor(authorName));
+                () -> newsService.resolveAuthor(authorName));
 
-        verify(authorRepository, never()).create(any());
-    }
-
-    @Test
-    void createNotExistAuthor_ShouldNotCreate_WhenAuthorAlreadyExists() {
-        String authorName = "ValidAuthor";
-
-        when(authorRepository.readAuthorByName(authorName)).thenReturn(Optional.of(new Author()));
-
-        newsService.createNotExistAuthor(authorName);
-
-        verify(authorRepository, never()).create(any());
+        verify(authorRepository, never()).readOrCreateByNames(any());
     }
 
 
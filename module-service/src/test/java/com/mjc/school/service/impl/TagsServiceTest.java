@@ -1,12 +1,16 @@
 package com.mjc.school.service.impl;
 
+import com.mjc.school.dto.CursorPageDtoResponse;
 import com.mjc.school.dto.TagDtoRequest;
 import com.mjc.school.dto.TagDtoResponse;
 import com.mjc.school.exception.ElementNotFoundException;
 import com.mjc.school.exception.ValidatorException;
 import com.mjc.school.mapper.TagMapper;
 import com.mjc.school.model.Tag;
+import com.mjc.school.repository.KeysetPage;
 import com.mjc.school.repository.impl.TagRepository;
+import com.mjc.school.service.cache.CacheConfig;
+import com.mjc.school.service.cache.MissingIds;
 import com.mjc.school.validation.CustomValidator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -30,6 +34,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -39,6 +45,7 @@ class TagsServiceTest {
     @Mock private TagRepository tagRepository;
     @Mock private TagMapper tagMapper;
     @Mock private CustomValidator customValidator;
+    @Mock private MissingIds missingIds;
 
     @InjectMocks
     private TagsServiceImpl tagsService;
@@ -53,7 +60,7 @@ class TagsServiceTest {
         tag = new Tag();
         tag.setId(1L);
         tag.setName("Tech");
-        response = new TagDtoResponse(1L, "Tech");
+        response = new TagDtoResponse(1L, "Tech", 1L);
     }
 
     @Test
@@ -76,6 +83,27 @@ class TagsServiceTest {
                 .hasMessageContaining(INVALID_VALUE_OF_SORTING.getErrorMessage());
     }
 
+    @Test
+    void readAllAfter_ShouldReturnContentAndNextCursor() {
+        when(tagRepository.readAllAfter("cursor", 10, "name,asc")).thenReturn(new KeysetPage<>(List.of(tag), "next"));
+        when(tagMapper.listModelToDtoList(anyList())).thenReturn(List.of(response));
+
+        CursorPageDtoResponse<TagDtoResponse> result = tagsService.readAllAfter("cursor", 10, "name,asc");
+
+        assertThat(result.content()).containsExactly(response);
+        assertThat(result.nextCursor()).isEqualTo("next");
+    }
+
+    @Test
+    void readAllAfter_ShouldThrow_WhenInvalidSort() {
+        when(tagRepository.readAllAfter(any(), anyInt(), anyString()))
+                .thenThrow(new InvalidDataAccessApiUsageException("bad cursor"));
+
+        assertThatThrownBy(() -> tagsService.readAllAfter("bad", 10, "name,asc"))
+                .isInstanceOf(ValidatorException.class)
+                .hasMessageContaining(INVALID_VALUE_OF_SORTING.getErrorMessage());
+    }
+
     @Test
     void readById_ShouldReturnTag() {
         when(tagRepository.readById(1L)).thenReturn(Optional.of(tag));
@@ -93,6 +121,17 @@ class TagsServiceTest {
         assertThatThrownBy(() -> tagsService.readById(1L))
                 .isInstanceOf(ElementNotFoundException.class)
                 .hasMessageContaining(String.format(NO_TAG_WITH_PROVIDED_ID.getErrorMessage(), 1L));
+        verify(missingIds).remember(CacheConfig.MISSING_TAG, 1L);
+    }
+
+    @Test
+    void readById_ShouldNotQuery_WhenIdIsKnownToBeMissing() {
+        when(missingIds.isMissing(CacheConfig.MISSING_TAG, 1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> tagsService.readById(1L))
+                .isInstanceOf(ElementNotFoundException.class)
+                .hasMessageContaining(String.format(NO_TAG_WITH_PROVIDED_ID.getErrorMessage(), 1L));
+        verify(tagRepository, never()).readById(any());
     }
 
     @Test
@@ -133,6 +172,19 @@ class TagsServiceTest {
         verify(customValidator).validateTag(request);
     }
 
+    @Test
+    void update_WithExpectedVersion_ShouldPassItToRepository() {
+        when(tagRepository.existById(1L)).thenReturn(true);
+        when(tagRepository.readTagByName("Tech")).thenReturn(Optional.empty());
+        when(tagMapper.DtoTagsToModel(request)).thenReturn(tag);
+        when(tagRepository.update(any(Tag.class))).thenReturn(tag);
+        when(tagMapper.ModelTagsToDto(tag)).thenReturn(response);
+
+        tagsService.update(1L, request, 3L);
+
+        verify(tagRepository).update(argThat(model -> Long.valueOf(3L).equals(model.getVersion())));
+    }
+
     @Test
     void update_ShouldThrow_WhenNotFound() {
         when(tagRepository.existById(1L)).thenReturn(false);
@@ -206,4 +258,20 @@ class TagsServiceTest {
                         String.format(NO_NEWS_WITH_PROVIDED_ID.getErrorMessage(), -1L)
                 );
     }
+
+    @Test
+    void searchByName_ShouldReturnMappedTags() {
+        when(tagRepository.searchByName("tec", 0, 5)).thenReturn(List.of(tag));
+        when(tagMapper.listModelToDtoList(List.of(tag))).thenReturn(List.of(response));
+
+        assertThat(tagsService.searchByName("tec", 0, 5)).containsExactly(response);
+    }
+
+    @Test
+    void searchByName_ShouldThrowValidatorException_WhenParametersInvalid() {
+        when(tagRepository.searchByName(" ", 0, 5)).thenThrow(new InvalidDataAccessApiUsageException("Invalid parameters"));
+
+        assertThatThrownBy(() -> tagsService.searchByName(" ", 0, 5))
+                .isInstanceOf(ValidatorException.class);
+    }
 }
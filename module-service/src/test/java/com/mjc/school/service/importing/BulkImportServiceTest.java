@@ -0,0 +1,143 @@
+package com.mjc.school.service.importing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mjc.school.dto.CommentDtoRequest;
+import com.mjc.school.dto.ImportProgressDtoResponse;
+import com.mjc.school.dto.NewsDtoRequest;
+import com.mjc.school.validation.CustomValidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BulkImportServiceTest {
+
+    @Mock
+    private ImportBatchWriter batchWriter;
+
+    @Spy
+    private CustomValidator customValidator = new CustomValidator();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private BulkImportService bulkImportService;
+
+    private final List<ImportProgressDtoResponse> progress = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bulkImportService, "batchSize", 2);
+    }
+
+    @Test
+    void importNews_ShouldWriteValidLinesInBatchesAndReportBadOnes() {
+        List<List<String>> writtenTitles = new ArrayList<>();
+        when(batchWriter.writeNews(anyList())).thenAnswer(invocation -> {
+            List<ImportLine<NewsDtoRequest>> lines = invocation.getArgument(0);
+            writtenTitles.add(lines.stream().map(line -> line.request().title()).toList());
+            return List.of();
+        });
+        String ndjson = """
+                {"title":"First title","content":"Some content","authorName":"Author","tagNames":["news"]}
+                {"title":"Second title","content":"Some content","authorName":"Author","tagNames":["news"]}
+                not json
+                {"title":"Third title","content":"Some content","authorName":"Author","tagNames":[]}
+
+                {"title":"Fourth title","content":"Some content","authorName":"Author","tagNames":["news","sport"]}
+                """;
+
+        bulkImportService.importNews(new StringReader(ndjson), ImportFormat.NDJSON, progress::add);
+
+        assertThat(writtenTitles).containsExactly(List.of("First title", "Second title"), List.of("Fourth title"));
+        assertThat(progress).hasSize(4);
+        assertThat(progress.get(1).errors()).extracting("line").containsExactly(3L, 4L);
+        ImportProgressDtoResponse last = progress.get(3);
+        assertThat(last.done()).isTrue();
+        assertThat(last.processed()).isEqualTo(5);
+        assertThat(last.imported()).isEqualTo(3);
+        assertThat(last.failed()).isEqualTo(2);
+    }
+
+    @Test
+    void importNews_ShouldReportNullLinesAndNullTagsAsLineErrors() {
+        List<String> writtenTitles = new ArrayList<>();
+        when(batchWriter.writeNews(anyList())).thenAnswer(invocation -> {
+            List<ImportLine<NewsDtoRequest>> lines = invocation.getArgument(0);
+            lines.forEach(line -> writtenTitles.add(line.request().title()));
+            return List.of();
+        });
+        String ndjson = """
+                null
+                {"title":"First title","content":"Some content","authorName":"Author","tagNames":["news",null]}
+                {"title":"Second title","content":"Some content","authorName":"Author"}
+                {"title":"Third title","content":"Some content","authorName":"Author","tagNames":["news"]}
+                """;
+
+        bulkImportService.importNews(new StringReader(ndjson), ImportFormat.NDJSON, progress::add);
+
+        assertThat(writtenTitles).containsExactly("Third title");
+        assertThat(progress).flatExtracting(ImportProgressDtoResponse::errors).extracting("line").containsExactly(1L, 2L, 3L);
+        ImportProgressDtoResponse last = progress.get(progress.size() - 1);
+        assertThat(last.imported()).isEqualTo(1);
+        assertThat(last.failed()).isEqualTo(3);
+    }
+
+    @Test
+    void importNews_ShouldFailOnlyTheBatchTheDatabaseRejects() {
+        when(batchWriter.writeNews(anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .thenReturn(List.of());
+        String csv = """
+                title,content,authorName,tagNames
+                First title,Some content,Author,news
+                Second title,Some content,Author,news|sport
+                Third title,Some content,Author,news
+                """;
+
+        bulkImportService.importNews(new StringReader(csv), ImportFormat.CSV, progress::add);
+
+        assertThat(progress.get(0).errors()).extracting("line").containsExactly(2L, 3L);
+        assertThat(progress.get(0).errors().get(0).message()).contains("duplicate key");
+        ImportProgressDtoResponse last = progress.get(progress.size() - 1);
+        assertThat(last.imported()).isEqualTo(1);
+        assertThat(last.failed()).isEqualTo(2);
+    }
+
+    @Test
+    void importComments_ShouldParseQuotedCsvFields() {
+        List<CommentDtoRequest> written = new ArrayList<>();
+        when(batchWriter.writeComments(anyList())).thenAnswer(invocation -> {
+            List<ImportLine<CommentDtoRequest>> lines = invocation.getArgument(0);
+            lines.forEach(line -> written.add(line.request()));
+            return List.of();
+        });
+        String csv = """
+                content,newsId
+                "Nice, ""short"" read",7
+                Missing id,
+                """;
+
+        bulkImportService.importComments(new StringReader(csv), ImportFormat.CSV, progress::add);
+
+        assertThat(written).containsExactly(new CommentDtoRequest("Nice, \"short\" read", 7L));
+        ImportProgressDtoResponse last = progress.get(progress.size() - 1);
+        assertThat(last.imported()).isEqualTo(1);
+        assertThat(last.failed()).isEqualTo(1);
+    }
+}
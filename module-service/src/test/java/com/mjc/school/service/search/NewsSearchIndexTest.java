@@ -0,0 +1,50 @@
+package com.mjc.school.service.search;
+
+import com.mjc.school.repository.impl.NewsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+class NewsSearchIndexTest {
+
+    @Mock
+    private NewsRepository newsRepository;
+
+    @InjectMocks
+    private NewsSearchIndex newsSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(newsSearchIndex, "enabled", true);
+        newsSearchIndex.index(1L, "Spring news", "Nothing about boot here");
+        newsSearchIndex.index(2L, "Weather", "Spring is coming");
+        newsSearchIndex.index(3L, "Spring Boot release", "Spring Boot 3 is out");
+    }
+
+    @Test
+    void search_ShouldRequireAllTermsAndRankTitleMatchesFirst() {
+        assertThat(newsSearchIndex.search("spring BOOT")).containsExactly(3L, 1L);
+        assertThat(newsSearchIndex.search("spring")).containsExactly(3L, 1L, 2L);
+    }
+
+    @Test
+    void search_ShouldReflectUpdatesAndRemovals() {
+        newsSearchIndex.index(3L, "Weather", "Rain");
+        newsSearchIndex.remove(1L);
+
+        assertThat(newsSearchIndex.search("boot")).isEmpty();
+        assertThat(newsSearchIndex.search("weather")).containsExactlyInAnyOrder(2L, 3L);
+    }
+
+    @Test
+    void search_ShouldReturnEmpty_WhenTextHasNoTerms() {
+        assertThat(newsSearchIndex.search(" ,. ")).isEmpty();
+    }
+}
@@ -0,0 +1,23 @@
+package com.mjc.school.config;
+
+import com.mjc.school.service.cache.ClusteredCache;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Binds the Caffeine statistics under each {@link ClusteredCache}, which actuator does not see through on
+ * its own, so {@code cache.gets} and friends keep reporting hit rates.
+ */
+@Configuration
+public class CacheMetricsConfig {
+
+    @Bean
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public CacheMeterBinderProvider<ClusteredCache> clusteredCacheMeterBinderProvider() {
+        return (cache, tags) -> cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine
+                ? new CaffeineCacheMetrics(caffeine, cache.getName(), tags)
+                : null;
+    }
+}
@@ -0,0 +1,46 @@
+package com.mjc.school.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers when each user last committed a write, so that their reads can stay on the primary until
+ * replicas have had {@code window} to catch up. A zero window disables the tracking.
+ */
+public class ReadYourWritesTracker {
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private final long windowNanos;
+
+    public ReadYourWritesTracker(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    public void recordWrite(String username) {
+        if (windowNanos <= 0 || username == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        lastWrites.put(username, now);
+        if (lastWrites.size() > PURGE_THRESHOLD) {
+            lastWrites.values().removeIf(time -> now - time > windowNanos);
+        }
+    }
+
+    public boolean wroteRecently(String username) {
+        if (windowNanos <= 0 || username == null) {
+            return false;
+        }
+        Long lastWrite = lastWrites.get(username);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.nanoTime() - lastWrite > windowNanos) {
+            lastWrites.remove(username, lastWrite);
+            return false;
+        }
+        return true;
+    }
+}
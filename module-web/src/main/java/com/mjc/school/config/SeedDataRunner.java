@@ -0,0 +1,40 @@
+package com.mjc.school.config;
+
+import com.mjc.school.repository.copy.SeedDataGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the database with a synthetic dataset through COPY when started with {@code seed.news-count}.
+ * Runs before the application reports ready, so startup work such as the search index sees the rows.
+ */
+@Component
+@ConditionalOnProperty(name = "seed.news-count")
+@RequiredArgsConstructor
+public class SeedDataRunner implements ApplicationRunner {
+    private final SeedDataGenerator seedDataGenerator;
+
+    @Value("${seed.news-count}")
+    private int newsCount;
+
+    @Value("${seed.authors:1000}")
+    private int authorCount;
+
+    @Value("${seed.tags:500}")
+    private int tagCount;
+
+    @Value("${seed.tags-per-news:3}")
+    private int tagsPerNews;
+
+    @Value("${seed.comments-per-news:2}")
+    private int commentsPerNews;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        seedDataGenerator.generate(authorCount, tagCount, newsCount, tagsPerNews, commentsPerNews);
+    }
+}
@@ -3,7 +3,9 @@ package com.mjc.school.controller;
 import com.mjc.school.hateoas.LinkHelper;
 import com.mjc.school.dto.AuthorDtoRequest;
 import com.mjc.school.dto.AuthorDtoResponse;
+import com.mjc.school.dto.AuthorNewsCountDtoResponse;
 import com.mjc.school.service.AuthorService;
+import com.mjc.school.service.retry.OptimisticRetry;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
@@ -11,7 +13,9 @@ import io.swagger.annotations.ApiResponses;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -20,10 +24,12 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -36,6 +42,7 @@ import java.util.List;
 public class AuthorController implements BaseController<AuthorDtoRequest, AuthorDtoResponse, Long> {
 
     private final AuthorService authorService;
+    private final OptimisticRetry optimisticRetry;
 
     @Override
     @GetMapping("/readAll")
@@ -47,11 +54,44 @@ public class AuthorController implements BaseController<AuthorDtoRequest, Author
             @ApiResponse(code = 404, message = "Resource is not found"),
             @ApiResponse(code = 500, message = "Internal server error")
     })
-    public List<AuthorDtoResponse> readAll(
+    public ResponseEntity<List<AuthorDtoResponse>> readAll(
             @RequestParam(value = "page", required = false, defaultValue = "0") int page,
             @RequestParam(value = "size", required = false, defaultValue = "5") int size,
-            @RequestParam(value = "sortBy", required = false, defaultValue = "name,dsc") String sortBy) {
-        return this.authorService.readAll(page, size, sortBy);
+            @RequestParam(value = "sortBy", required = false, defaultValue = "name,dsc") String sortBy,
+            @RequestParam(value = "after", required = false) String after) {
+        if (after != null) {
+            return BaseController.cursorResponse(authorService.readAllAfter(after, size, sortBy));
+        }
+        return ResponseEntity.ok(authorService.readAll(page, size, sortBy));
+    }
+
+    @GetMapping("/ranking")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiOperation(value = "Get authors ranked by number of news", response = List.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Successfully fetched author ranking"),
+            @ApiResponse(code = 400, message = "Invalid request from the client"),
+            @ApiResponse(code = 500, message = "Internal server error")
+    })
+    public List<AuthorNewsCountDtoResponse> readRankedByNewsCount(
+            @RequestParam(value = "page", required = false, defaultValue = "0") int page,
+            @RequestParam(value = "size", required = false, defaultValue = "5") int size) {
+        return authorService.readRankedByNewsCount(page, size);
+    }
+
+    @GetMapping("/search")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiOperation(value = "Search authors by name", notes = "Case-insensitive substring or similar-spelling match, most similar first", response = List.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Successfully searched authors"),
+            @ApiResponse(code = 400, message = "Invalid request from the client"),
+            @ApiResponse(code = 500, message = "Internal server error")
+    })
+    public List<AuthorDtoResponse> searchByName(
+            @RequestParam(value = "name") String name,
+            @RequestParam(value = "page", required = false, defaultValue = "0") int page,
+            @RequestParam(value = "size", required = false, defaultValue = "5") int size) {
+        return authorService.searchByName(name, page, size);
     }
 
     @Override
@@ -64,10 +104,14 @@ public class AuthorController implements BaseController<AuthorDtoRequest, Author
             @ApiResponse(code = 404, message = "Resource is not found"),
             @ApiResponse(code = 500, message = "Internal server error")
     })
-    public EntityModel<AuthorDtoResponse> readById(@PathVariable Long id) {
-        EntityModel<AuthorDtoResponse> model = EntityModel.of(authorService.readById(id));
+    public ResponseEntity<EntityModel<AuthorDtoResponse>> readById(@PathVariable Long id, WebRequest request) {
+        AuthorDtoResponse response = authorService.readById(id);
+        if (response.version() != null && request.checkNotModified(response.version().toString())) {
+            return null;
+        }
+        EntityModel<AuthorDtoResponse> model = EntityModel.of(response);
         LinkHelper.addLinkToAuthors(model);
-        return model;
+        return BaseController.versioned(model, response.version());
     }
 
     @Override
@@ -102,12 +146,18 @@ public class AuthorController implements BaseController<AuthorDtoRequest, Author
             @ApiResponse(code = 401, message = "User is unauthorised"),
             @ApiResponse(code = 403, message = "User don`t have permission to access."),
             @ApiResponse(code = 404, message = "Resource is not found"),
+            @ApiResponse(code = 409, message = "Resource was modified by another request"),
             @ApiResponse(code = 500, message = "Internal server error")
     })
-    public EntityModel<AuthorDtoResponse> update(@PathVariable Long id, @RequestBody AuthorDtoRequest updateRequest) {
-        EntityModel<AuthorDtoResponse> model = EntityModel.of(authorService.update(id, updateRequest));
+    public ResponseEntity<EntityModel<AuthorDtoResponse>> update(@PathVariable Long id, @RequestBody AuthorDtoRequest updateRequest,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = BaseController.expectedVersion(ifMatch);
+        AuthorDtoResponse response = expectedVersion == null
+                ? optimisticRetry.run(() -> authorService.update(id, updateRequest))
+                : authorService.update(id, updateRequest, expectedVersion);
+        EntityModel<AuthorDtoResponse> model = EntityModel.of(response);
         LinkHelper.addLinkToAuthors(model);
-        return model;
+        return BaseController.versioned(model, response.version());
     }
 
 
@@ -1,18 +1,108 @@
 package com.mjc.school.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.mjc.school.dto.CursorPageDtoResponse;
+import com.mjc.school.dto.ValidatorDtoResponse;
+import com.mjc.school.exception.PreconditionFailedException;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BaseController<T, R, K> {
+    String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    String NDJSON = "application/x-ndjson";
+    String CSV = "text/csv";
 
-    List<R> readAll(int page, int size, String sortBy);
+    ResponseEntity<List<R>> readAll(int page, int size, String sortBy, String after);
 
-    EntityModel<R> readById(K id);
+    ResponseEntity<EntityModel<R>> readById(K id, WebRequest request);
 
     EntityModel<R> create(T createRequest);
 
-    EntityModel<R> update(K id, T updateRequest);
+    ResponseEntity<EntityModel<R>> update(K id, T updateRequest, String ifMatch);
 
     void deleteById(K id);
+
+    static <R> ResponseEntity<List<R>> cursorResponse(CursorPageDtoResponse<R> cursorPage) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (cursorPage.nextCursor() != null) {
+            builder.header(NEXT_CURSOR_HEADER, cursorPage.nextCursor());
+        }
+        return builder.body(cursorPage.content());
+    }
+
+    /**
+     * Version a client expects to overwrite, from an {@code If-Match} header holding an ETag we issued;
+     * {@code null} when the header is absent or {@code *}. Only the version before a {@code -} counts, so
+     * a tag that also fingerprints embedded rows still matches. If-Match uses strong comparison (RFC 9110),
+     * so a weak tag, like a tag we could not have issued, never matches and fails the precondition.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            throw new PreconditionFailedException("If-Match " + ifMatch + " is a weak tag and cannot match");
+        }
+        try {
+            tag = tag.replace("\"", "");
+            int dependents = tag.indexOf('-');
+            return Long.valueOf(dependents > 0 ? tag.substring(0, dependents) : tag);
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match " + ifMatch + " does not match the current version");
+        }
+    }
+
+    static <R> ResponseEntity<EntityModel<R>> versioned(EntityModel<R> model, Long version) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (version != null) {
+            builder.eTag(version.toString());
+        }
+        return builder.body(model);
+    }
+
+    /**
+     * Answers a conditional GET from the validator alone: when {@code If-None-Match} or
+     * {@code If-Modified-Since} still holds, the response is already a 304 and the handler returns
+     * {@code null} without reading the resource.
+     */
+    static boolean notModified(WebRequest request, ValidatorDtoResponse validator) {
+        return validator.lastModified() == null
+                ? request.checkNotModified(validator.eTag())
+                : request.checkNotModified(validator.eTag(), validator.lastModified().toEpochMilli());
+    }
+
+    static <R> ResponseEntity<EntityModel<R>> validated(EntityModel<R> model, ValidatorDtoResponse validator) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(validator.eTag());
+        if (validator.lastModified() != null) {
+            builder.lastModified(validator.lastModified());
+        }
+        return builder.body(model);
+    }
+
+    /**
+     * Writes each value it receives as one JSON line and flushes, so a streamed response shows progress
+     * as it happens.
+     */
+    static <E> Consumer<E> ndjsonWriter(ObjectMapper objectMapper, OutputStream outputStream) {
+        ObjectWriter writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return value -> {
+            try {
+                writer.writeValue(outputStream, value);
+                outputStream.write('\n');
+                outputStream.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
 }
@@ -0,0 +1,83 @@
+package com.mjc.school.controller;
+
+import com.mjc.school.dto.CacheStatsDtoResponse;
+import com.mjc.school.service.cache.ResponseCacheService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(value = "api/v1/admin/caches", produces = "application/json")
+@PreAuthorize("hasRole('ROLE_ADMIN')")
+@Api(value = "Caches", description = "Operations for inspecting and flushing the response caches")
+public class CacheAdminController {
+
+    private final ResponseCacheService responseCacheService;
+
+    @GetMapping
+    @ResponseStatus(HttpStatus.OK)
+    @ApiOperation(value = "Get size and hit statistics of all caches", response = List.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Successfully fetched cache statistics"),
+            @ApiResponse(code = 401, message = "User is unauthorised"),
+            @ApiResponse(code = 403, message = "User doesn’t have permission"),
+            @ApiResponse(code = 500, message = "Internal server error")
+    })
+    public List<CacheStatsDtoResponse> readAll() {
+        return responseCacheService.readAll();
+    }
+
+    @GetMapping("/{name}")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiOperation(value = "Get size and hit statistics of a cache", response = CacheStatsDtoResponse.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Successfully fetched cache statistics"),
+            @ApiResponse(code = 401, message = "User is unauthorised"),
+            @ApiResponse(code = 403, message = "User doesn’t have permission"),
+            @ApiResponse(code = 404, message = "Cache is not found"),
+            @ApiResponse(code = 500, message = "Internal server error")
+    })
+    public CacheStatsDtoResponse readByName(@PathVariable String name) {
+        return responseCacheService.readByName(name);
+    }
+
+    @DeleteMapping
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @ApiOperation(value = "Flush all caches")
+    @ApiResponses(value = {
+            @ApiResponse(code = 204, message = "Successfully flushed all caches"),
+            @ApiResponse(code = 401, message = "User is unauthorised"),
+            @ApiResponse(code = 403, message = "User doesn’t have permission"),
+            @ApiResponse(code = 500, message = "Internal server error")
+    })
+    public void clearAll() {
+        responseCacheService.clearAll();
+    }
+
+    @DeleteMapping("/{name}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @ApiOperation(value = "Flush a cache")
+    @ApiResponses(value = {
+            @ApiResponse(code = 204, message = "Successfully flushed the cache"),
+            @ApiResponse(code = 401, message = "User is unauthorised"),
+            @ApiResponse(code = 403, message = "User doesn’t have permission"),
+            @ApiResponse(code = 404, message = "Cache is not found"),
+            @ApiResponse(code = 500, message = "Internal server error")
+    })
+    public void clear(@PathVariable String name) {
+        responseCacheService.clear(name);
+    }
+}
@@ -4,14 +4,22 @@ import com.mjc.school.annotation.CommandParam;
 import com.mjc.school.hateoas.LinkHelper;
 import com.mjc.school.dto.CommentDtoRequest;
 import com.mjc.school.dto.CommentDtoResponse;
+import com.mjc.school.dto.ValidatorDtoResponse;
 import com.mjc.school.service.CommentService;
+import com.mjc.school.service.importing.BulkImportService;
+import com.mjc.school.service.importing.ImportFormat;
+import com.mjc.school.service.retry.OptimisticRetry;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import lombok.RequiredArgsConstructor;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,11 +27,17 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -32,6 +46,9 @@ import java.util.List;
 @Api(value = "Comments", description = "Operations for creating, updating, retrieving and deleting comment in the application")
 public class CommentController implements BaseController<CommentDtoRequest, CommentDtoResponse, Long> {
     private final CommentService commentService;
+    private final OptimisticRetry optimisticRetry;
+    private final BulkImportService bulkImportService;
+    private final ObjectMapper objectMapper;
 
     @Override
     @GetMapping
@@ -43,12 +60,15 @@ public class CommentController implements BaseController<CommentDtoRequest, Comm
             @ApiResponse(code = 404, message = "Resource is not found"),
             @ApiResponse(code = 500, message = "Internal server error")
     })
-    public List<CommentDtoResponse> readAll(
+    public ResponseEntity<List<CommentDtoResponse>> readAll(
             @RequestParam(value = "page", required = false, defaultValue = "0") int page,
             @RequestParam(value = "size", required = false, defaultValue = "5") int size,
-            @RequestParam(value = "sortBy", required = false, defaultValue = "created,dsc") String sortBy) {
-        return this.commentService.readAll(page, size, sortBy);
-
+            @RequestParam(value = "sortBy", required = false, defaultValue = "created,dsc") String sortBy,
+            @RequestParam(value = "after", required = false) String after) {
+        if (after != null) {
+            return BaseController.cursorResponse(commentService.readAllAfter(after, size, sortBy));
+        }
+        return ResponseEntity.ok(commentService.readAll(page, size, sortBy));
     }
 
     @Override
@@ -57,14 +77,19 @@ public class CommentController implements BaseController<CommentDtoRequest, Comm
     @ApiOperation(value = "Get comment by ID", response = CommentDtoResponse.class)
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Successfully fetched comment by ID"),
+            @ApiResponse(code = 304, message = "Comment is not modified"),
             @ApiResponse(code = 400, message = "Invalid ID supplied"),
             @ApiResponse(code = 404, message = "Resource is not found"),
             @ApiResponse(code = 500, message = "Internal server error")
     })
-    public EntityModel<CommentDtoResponse> readById(@CommandParam("commentId") @PathVariable Long id) {
+    public ResponseEntity<EntityModel<CommentDtoResponse>> readById(@CommandParam("commentId") @PathVariable Long id, WebRequest request) {
+        ValidatorDtoResponse validator = commentService.readValidator(id);
+        if (BaseController.notModified(request, validator)) {
+            return null;
+        }
         EntityModel<CommentDtoResponse> model = EntityModel.of(commentService.readById(id));
         LinkHelper.addLinkToComments(model);
-        return model;
+        return BaseController.validated(model, validator);
     }
 
 
@@ -86,6 +111,17 @@ public class CommentController implements BaseController<CommentDtoRequest, Comm
         return model;
     }
 
+    @PostMapping(value = "/import", consumes = {BaseController.NDJSON, BaseController.CSV}, produces = BaseController.NDJSON)
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @ApiOperation(value = "Bulk import comments", notes = "Body is NDJSON comment requests, or CSV with a content,newsId header. "
+            + "Progress and per-line errors are streamed back as newline-delimited JSON after every batch")
+    public ResponseEntity<StreamingResponseBody> importComments(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) {
+        ImportFormat format = ImportFormat.fromContentType(contentType);
+        StreamingResponseBody response = outputStream -> bulkImportService.importComments(new InputStreamReader(body, StandardCharsets.UTF_8),
+                format, BaseController.ndjsonWriter(objectMapper, outputStream));
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(BaseController.NDJSON)).body(response);
+    }
+
     @Override
     @PatchMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
@@ -97,12 +133,18 @@ public class CommentController implements BaseController<CommentDtoRequest, Comm
             @ApiResponse(code = 401, message = "User is unauthorised"),
             @ApiResponse(code = 403, message = "User don`t have permission to access."),
             @ApiResponse(code = 404, message = "Resource is not found"),
+            @ApiResponse(code = 409, message = "Resource was modified by another request"),
             @ApiResponse(code = 500, message = "Internal server error")
     })
-    public EntityModel<CommentDtoResponse> update(@PathVariable Long id, @RequestBody CommentDtoRequest updateRequest) {
-        EntityModel<CommentDtoResponse> model = EntityModel.of(commentService.update(id, updateRequest));
+    public ResponseEntity<EntityModel<CommentDtoResponse>> update(@PathVariable Long id, @RequestBody CommentDtoRequest updateRequest,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = BaseController.expectedVersion(ifMatch);
+        CommentDtoResponse response = expectedVersion == null
+                ? optimisticRetry.run(() -> commentService.update(id, updateRequest))
+                : commentService.update(id, updateRequest, expectedVersion);
+        EntityModel<CommentDtoResponse> model = EntityModel.of(response);
         LinkHelper.addLinkToComments(model);
-        return model;
+        return BaseController.versioned(model, response.version());
     }
 
     @Override
@@ -1,27 +1,53 @@
 package com.mjc.school.controller;
 
 import com.mjc.school.annotation.CommandParam;
+import com.mjc.school.config.AsyncRequestConfig;
 import com.mjc.school.dto.AuthorDtoResponse;
+import com.mjc.school.dto.AuthorNewsCountDtoResponse;
 import com.mjc.school.dto.CommentDtoResponse;
 import com.mjc.school.dto.NewsDtoRequest;
 import com.mjc.school.dto.NewsDtoResponse;
 import com.mjc.school.dto.NewsPageDtoResponse;
 import com.mjc.school.dto.TagDtoResponse;
+import com.mjc.school.dto.ValidatorDtoResponse;
 import com.mjc.school.hateoas.LinkHelper;
+import com.mjc.school.repository.NewsSearchMode;
 import com.mjc.school.repository.impl.NewsRepository;
 import com.mjc.school.service.AuthorService;
 import com.mjc.school.service.CommentService;
+import com.mjc.school.service.NewsETag;
 import com.mjc.school.service.NewsService;
 import com.mjc.school.service.TagService;
+import com.mjc.school.service.importing.BulkImportService;
+import com.mjc.school.service.importing.ImportFormat;
+import com.mjc.school.service.retry.OptimisticRetry;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -33,23 +59,36 @@ import java.util.List;
         methods = {RequestMethod.PUT, RequestMethod.GET, RequestMethod.POST, RequestMethod.DELETE, RequestMethod.PATCH}
 )
 public class NewsController implements NewsControllerInterface<NewsDtoRequest, NewsDtoResponse, Long> {
+    private static final Duration AUTHORS_MAX_AGE = Duration.ofSeconds(30);
 
     private final NewsService<NewsDtoRequest, NewsDtoResponse, Long> newsService;
     private final AuthorService authorService;
     private final TagService tagService;
     private final CommentService commentService;
     private final NewsRepository newsRepository;
+    private final ObjectMapper objectMapper;
+    private final BulkImportService bulkImportService;
+    private final OptimisticRetry optimisticRetry;
+    private final NewsJsonCache newsJsonCache;
+
+    @Value("${news.export.timeout:30m}")
+    private Duration exportTimeout;
 
-    @GetMapping
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.HAL_JSON_VALUE})
     @Override
     @ResponseStatus(HttpStatus.OK)
-    @ApiOperation(value = "Get all news with pagination", response = NewsPageDtoResponse.class)
-    public EntityModel<NewsPageDtoResponse> readAll(
+    @ApiOperation(value = "Get all news with pagination", notes = "Pass 'after' (empty for the first page, then nextCursor) to page by cursor instead of offset", response = NewsPageDtoResponse.class)
+    public ResponseEntity<byte[]> readAll(
             @RequestParam(value = "page", required = false, defaultValue = "0") int page,
             @RequestParam(value = "size", required = false, defaultValue = "5") int size,
-            @RequestParam(value = "sortBy", required = false, defaultValue = "createDate,dsc") String sortBy) {
-        NewsPageDtoResponse response = newsService.readAll(page, size, sortBy);
-        return EntityModel.of(response);
+            @RequestParam(value = "sortBy", required = false, defaultValue = "createDate,dsc") String sortBy,
+            @RequestParam(value = "after", required = false) String after,
+            WebRequest request) {
+        NewsPageDtoResponse response = after != null
+                ? newsService.readAllAfter(after, size, sortBy)
+                : newsService.readAll(page, size, sortBy);
+        MediaType mediaType = NewsJsonCache.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+        return ResponseEntity.ok().contentType(mediaType).body(newsJsonCache.page(response, mediaType));
     }
 
     @GetMapping("/getAll")
@@ -65,6 +104,37 @@ public class NewsController implements NewsControllerInterface<NewsDtoRequest, N
         }
     }
 
+    @PostMapping(value = "/import", consumes = {BaseController.NDJSON, BaseController.CSV}, produces = BaseController.NDJSON)
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @ApiOperation(value = "Bulk import news", notes = "Body is NDJSON news requests, or CSV with a title,content,authorName,tagNames header "
+            + "and tags separated by '|'. Progress and per-line errors are streamed back as newline-delimited JSON after every batch")
+    public ResponseEntity<StreamingResponseBody> importNews(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) {
+        ImportFormat format = ImportFormat.fromContentType(contentType);
+        StreamingResponseBody response = outputStream -> bulkImportService.importNews(new InputStreamReader(body, StandardCharsets.UTF_8),
+                format, BaseController.ndjsonWriter(objectMapper, outputStream));
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(BaseController.NDJSON)).body(response);
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @ApiOperation(value = "Export all news", notes = "Streams every news as newline-delimited JSON, ordered by id")
+    public ResponseEntity<StreamingResponseBody> exportAll(HttpServletRequest request) {
+        request.setAttribute(AsyncRequestConfig.TIMEOUT_ATTRIBUTE, exportTimeout);
+        ObjectWriter writer = objectMapper.writerFor(NewsDtoResponse.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                newsService.exportAll(news -> {
+                    try {
+                        writer.writeValue(generator, news);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+
     @GetMapping("/count")
     @ResponseStatus(HttpStatus.OK)
     @ApiOperation(value = "Get news count")
@@ -79,28 +149,35 @@ public class NewsController implements NewsControllerInterface<NewsDtoRequest, N
 
     @GetMapping("/authors")
     @ResponseStatus(HttpStatus.OK)
-    @ApiOperation(value = "Get all authors")
-    public ResponseEntity<List<AuthorDtoResponse>> getAuthors(){
-        try {
-            List<NewsDtoResponse> allNews = newsService.readAll(0, 1000, "createDate,desc").newsList();
-            List<AuthorDtoResponse> authors = allNews.stream()
-                    .map(news -> authorService.readAuthorByNewsId(news.id()))
-                    .distinct()
-                    .toList();
-            return ResponseEntity.ok(authors);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.status(500).build();
-        }
+    @ApiOperation(value = "Get authors having news, with their news count", notes = "Most prolific authors first")
+    public ResponseEntity<List<AuthorNewsCountDtoResponse>> getAuthors(
+            @RequestParam(value = "page", required = false, defaultValue = "0") int page,
+            @RequestParam(value = "size", required = false, defaultValue = "1000") int size) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(AUTHORS_MAX_AGE))
+                .body(authorService.readAuthorsWithNews(page, size));
     }
 
     @Override
-    @GetMapping("/{id}")
+    @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.HAL_JSON_VALUE})
     @ResponseStatus(HttpStatus.OK)
-    public EntityModel<NewsDtoResponse> readById(@CommandParam("newsId") @PathVariable Long id) {
-        EntityModel<NewsDtoResponse> model = EntityModel.of(newsService.readById(id));
-        LinkHelper.addLinkToNews(model);
-        return model;
+    @ApiOperation(value = "Get news by ID", notes = "Answers 304 to If-None-Match or If-Modified-Since without loading the news", response = NewsDtoResponse.class)
+    public ResponseEntity<byte[]> readById(@CommandParam("newsId") @PathVariable Long id, WebRequest request) {
+        ValidatorDtoResponse validator = newsService.readValidator(id);
+        if (BaseController.notModified(request, validator)) {
+            return null;
+        }
+        MediaType mediaType = NewsJsonCache.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+        NewsJsonCache.Detail detail = newsJsonCache.detail(id, mediaType, validator.eTag(), () -> {
+            EntityModel<NewsDtoResponse> model = EntityModel.of(newsService.readById(id));
+            LinkHelper.addLinkToNews(model);
+            return model;
+        });
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().contentType(mediaType).eTag(detail.eTag());
+        if (validator.lastModified() != null && detail.eTag().equals(validator.eTag())) {
+            builder.lastModified(validator.lastModified());
+        }
+        return builder.body(detail.json());
     }
 
     @Override
@@ -117,10 +194,15 @@ public class NewsController implements NewsControllerInterface<NewsDtoRequest, N
     @PatchMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
     @PreAuthorize("hasRole('ROLE_ADMIN')")
-    public EntityModel<NewsDtoResponse> update(@PathVariable Long id, @RequestBody NewsDtoRequest updateRequest) {
-        EntityModel<NewsDtoResponse> model = EntityModel.of(newsService.update(id, updateRequest));
+    public ResponseEntity<EntityModel<NewsDtoResponse>> update(@PathVariable Long id, @RequestBody NewsDtoRequest updateRequest,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = BaseController.expectedVersion(ifMatch);
+        NewsDtoResponse response = expectedVersion == null
+                ? optimisticRetry.run(() -> newsService.update(id, updateRequest))
+                : newsService.update(id, updateRequest, expectedVersion);
+        EntityModel<NewsDtoResponse> model = EntityModel.of(response);
         LinkHelper.addLinkToNews(model);
-        return model;
+        return ResponseEntity.ok().eTag(NewsETag.of(response)).body(model);
     }
 
     @Override
@@ -133,13 +215,18 @@ public class NewsController implements NewsControllerInterface<NewsDtoRequest, N
 
     @GetMapping(value = "/search")
     @ResponseStatus(HttpStatus.OK)
+    @ApiOperation(value = "Search news", notes = "mode=FULL_TEXT matches title and content against the full-text index and ranks by relevance; INDEX uses the in-memory index when enabled; LIKE (default) matches substrings")
     public List<NewsDtoResponse> readListOfNewsByParams(
             @RequestParam(name = "tag_name", required = false) List<String> tagName,
             @RequestParam(name = "tag_id", required = false) List<Long> tagId,
             @RequestParam(name = "author_name", required = false) String authorName,
             @RequestParam(name = "title", required = false) String title,
-            @RequestParam(name = "content", required = false) String content) {
-        return newsService.readListOfNewsByParams(tagName, tagId, authorName, title, content);
+            @RequestParam(name = "content", required = false) String content,
+            @RequestParam(name = "mode", required = false, defaultValue = "LIKE") NewsSearchMode mode,
+            @RequestParam(value = "page", required = false, defaultValue = "0") int page,
+            @RequestParam(value = "size", required = false, defaultValue = "5") int size,
+            @RequestParam(value = "sortBy", required = false, defaultValue = "createDate,dsc") String sortBy) {
+        return newsService.readListOfNewsByParams(tagName, tagId, authorName, title, content, mode, page, size, sortBy);
     }
 
     @GetMapping(value = "/{newsId:\\d+}/tag")
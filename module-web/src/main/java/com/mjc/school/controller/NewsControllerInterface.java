@@ -1,16 +1,17 @@
 package com.mjc.school.controller;
 
-import com.mjc.school.dto.NewsPageDtoResponse;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
 
 public interface NewsControllerInterface <NewsDtoRequest, NewsDtoResponse, Long>{
-    EntityModel<NewsPageDtoResponse> readAll(int page, int size, String sortBy);
+    ResponseEntity<byte[]> readAll(int page, int size, String sortBy, String after, WebRequest request);
 
-    EntityModel<NewsDtoResponse> readById(Long id);
+    ResponseEntity<byte[]> readById(Long id, WebRequest request);
 
     EntityModel<NewsDtoResponse> create(NewsDtoRequest createRequest);
 
-    EntityModel<NewsDtoResponse> update(Long id, NewsDtoRequest updateRequest);
+    ResponseEntity<EntityModel<NewsDtoResponse>> update(Long id, NewsDtoRequest updateRequest, String ifMatch);
 
     void deleteById(Long id);
 }
@@ -0,0 +1,247 @@
+package com.mjc.school.controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mjc.school.dto.AuthorDtoResponse;
+import com.mjc.school.dto.CommentDtoResponse;
+import com.mjc.school.dto.NewsDtoResponse;
+import com.mjc.school.dto.NewsPageDtoResponse;
+import com.mjc.school.dto.TagDtoResponse;
+import com.mjc.school.service.NewsETag;
+import com.mjc.school.service.cache.CacheConfig;
+import com.mjc.school.service.cache.ExternalCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Ready-to-write UTF-8 JSON of news responses, produced once by the same message converters MVC would
+ * use, so cached and fresh responses are byte for byte alike. A detail response carries the ETag of the DTO
+ * it was written from and is reused while that ETag equals the news validator and the request's base URI
+ * (which its links embed) is unchanged; a list item is reused while
+ * its DTO is equal to the one it was written from. Pages are assembled from the item fragments. Entries
+ * validate themselves, so eviction on update and delete, here or on another node, only frees memory early.
+ * Responses are written as {@code application/json} or {@code application/hal+json}, whichever the request
+ * accepts; a detail is kept per media type, while list items are plain DTOs and are shared by both.
+ * Entries are weighed by their JSON plus an estimate of the DTO graph or strings they hold.
+ */
+@Component
+public class NewsJsonCache implements ExternalCache {
+    public static final List<MediaType> MEDIA_TYPES = List.of(MediaType.APPLICATION_JSON, MediaTypes.HAL_JSON);
+    private static final byte[] EMPTY_NEWS_LIST = "\"newsList\":[]".getBytes(StandardCharsets.UTF_8);
+    private static final int OBJECT_WEIGHT = 64;
+    private static final int STRING_WEIGHT = 40;
+
+    private final ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter;
+    private final Cache<DetailKey, Detail> details;
+    private final Cache<Long, Item> items;
+
+    public NewsJsonCache(ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter,
+                         @Value("${news.json-cache.max-size:64MB}") DataSize maxSize) {
+        this.handlerAdapter = handlerAdapter;
+        this.details = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes() / 2)
+                .weigher((DetailKey key, Detail detail) -> OBJECT_WEIGHT + detail.json().length
+                        + strings(detail.eTag(), detail.baseUri()))
+                .recordStats()
+                .build();
+        this.items = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes() / 2)
+                .weigher((Long id, Item item) -> OBJECT_WEIGHT + item.json().length + weigh(item.news()))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * The first of {@link #MEDIA_TYPES} that an {@code Accept} header takes, in order of its preference;
+     * {@code application/json} when the header is missing, malformed or takes neither.
+     */
+    public static MediaType negotiate(String accept) {
+        List<MediaType> accepted;
+        try {
+            accepted = accept == null ? new ArrayList<>() : MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            accepted = new ArrayList<>();
+        }
+        MediaType.sortBySpecificityAndQuality(accepted);
+        for (MediaType type : accepted) {
+            for (MediaType candidate : MEDIA_TYPES) {
+                if (type.getQualityValue() > 0 && type.includes(candidate)) {
+                    return candidate;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    /**
+     * JSON of news {@code id} with the ETag of the DTO it holds. A freshly read DTO whose ETag differs from
+     * {@code validator} was read on the other side of a write; it is returned with its own ETag but not kept.
+     */
+    public Detail detail(Long id, MediaType mediaType, String validator, Supplier<EntityModel<NewsDtoResponse>> model) {
+        String baseUri = ServletUriComponentsBuilder.fromCurrentContextPath().toUriString();
+        DetailKey key = new DetailKey(id, mediaType);
+        Detail cached = details.getIfPresent(key);
+        if (cached != null && cached.eTag().equals(validator) && cached.baseUri().equals(baseUri)) {
+            return cached;
+        }
+        EntityModel<NewsDtoResponse> fresh = model.get();
+        Detail detail = new Detail(NewsETag.of(fresh.getContent()), baseUri, write(fresh, mediaType));
+        if (detail.eTag().equals(validator)) {
+            details.put(key, detail);
+        }
+        return detail;
+    }
+
+    public byte[] page(NewsPageDtoResponse page, MediaType mediaType) {
+        EntityModel<NewsPageDtoResponse> empty = EntityModel.of(
+                new NewsPageDtoResponse(List.of(), page.totalNewsCount(), page.nextCursor()));
+        byte[] shell = write(empty, mediaType);
+        int list = indexOf(shell, EMPTY_NEWS_LIST);
+        if (list < 0) {
+            return write(EntityModel.of(page), mediaType);
+        }
+        int listEnd = list + EMPTY_NEWS_LIST.length - 1;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(shell.length + page.newsList().size() * 1024);
+        out.write(shell, 0, listEnd);
+        for (int i = 0; i < page.newsList().size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.writeBytes(item(page.newsList().get(i)));
+        }
+        out.write(shell, listEnd, shell.length - listEnd);
+        return out.toByteArray();
+    }
+
+    @Override
+    public String name() {
+        return CacheConfig.NEWS_JSON;
+    }
+
+    @Override
+    public void evict(Long id) {
+        for (MediaType mediaType : MEDIA_TYPES) {
+            details.invalidate(new DetailKey(id, mediaType));
+        }
+        items.invalidate(id);
+    }
+
+    @Override
+    public void clear() {
+        details.invalidateAll();
+        items.invalidateAll();
+    }
+
+    private byte[] item(NewsDtoResponse news) {
+        Item cached = items.getIfPresent(news.id());
+        if (cached != null && cached.news().equals(news)) {
+            return cached.json();
+        }
+        byte[] json = write(news, MediaType.APPLICATION_JSON);
+        items.put(news.id(), new Item(news, json));
+        return json;
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] write(Object value, MediaType mediaType) {
+        for (HttpMessageConverter<?> converter : handlerAdapter.getObject().getMessageConverters()) {
+            if (converter.canWrite(value.getClass(), mediaType)) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+                try {
+                    ((HttpMessageConverter<Object>) converter).write(value, mediaType, new BufferedMessage(out));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return out.toByteArray();
+            }
+        }
+        throw new IllegalStateException("No " + mediaType + " converter for " + value.getClass());
+    }
+
+    private static int weigh(NewsDtoResponse news) {
+        int weight = OBJECT_WEIGHT + strings(news.title(), news.content(), news.createDate(), news.lastUpdateDate());
+        AuthorDtoResponse author = news.authorDtoResponse();
+        if (author != null) {
+            weight += OBJECT_WEIGHT + strings(author.name(), author.createDate(), author.lastUpdateDate());
+        }
+        if (news.tagList() != null) {
+            for (TagDtoResponse tag : news.tagList()) {
+                weight += OBJECT_WEIGHT + strings(tag.name());
+            }
+        }
+        if (news.commentList() != null) {
+            for (CommentDtoResponse comment : news.commentList()) {
+                weight += OBJECT_WEIGHT + strings(comment.content(), comment.created(), comment.modified());
+            }
+        }
+        return weight;
+    }
+
+    private static int strings(String... values) {
+        int weight = 0;
+        for (String value : values) {
+            if (value != null) {
+                weight += STRING_WEIGHT + value.length();
+            }
+        }
+        return weight;
+    }
+
+    private static int indexOf(byte[] bytes, byte[] target) {
+        outer:
+        for (int i = 0; i <= bytes.length - target.length; i++) {
+            for (int j = 0; j < target.length; j++) {
+                if (bytes[i + j] != target[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    public record Detail(String eTag, String baseUri, byte[] json) {
+    }
+
+    private record DetailKey(Long id, MediaType mediaType) {
+    }
+
+    private record Item(NewsDtoResponse news, byte[] json) {
+    }
+
+    private record BufferedMessage(OutputStream body, HttpHeaders headers) implements HttpOutputMessage {
+        BufferedMessage(OutputStream body) {
+            this(body, new HttpHeaders());
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
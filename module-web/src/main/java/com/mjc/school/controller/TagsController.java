@@ -5,13 +5,16 @@ import com.mjc.school.hateoas.LinkHelper;
 import com.mjc.school.dto.TagDtoRequest;
 import com.mjc.school.dto.TagDtoResponse;
 import com.mjc.school.service.TagService;
+import com.mjc.school.service.retry.OptimisticRetry;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import lombok.RequiredArgsConstructor;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,10 +22,12 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 
 import java.util.List;
@@ -34,6 +39,7 @@ import java.util.List;
 public class TagsController implements BaseController<TagDtoRequest, TagDtoResponse, Long> {
 
     private final TagService tagsService;
+    private final OptimisticRetry optimisticRetry;
 
     @Override
     @GetMapping
@@ -45,11 +51,30 @@ public class TagsController implements BaseController<TagDtoRequest, TagDtoRespo
             @ApiResponse(code = 404, message = "Resource is not found"),
             @ApiResponse(code = 500, message = "Internal server error")
     })
-    public List<TagDtoResponse> readAll(@RequestParam(value = "page", required = false, defaultValue = "0") int page,
-                                        @RequestParam(value = "size", required = false, defaultValue = "5") int size,
-                                        @RequestParam(value = "sortBy", required = false, defaultValue = "name,asc") String sortBy) {
-        return tagsService.readAll(page, size, sortBy);
+    public ResponseEntity<List<TagDtoResponse>> readAll(
+            @RequestParam(value = "page", required = false, defaultValue = "0") int page,
+            @RequestParam(value = "size", required = false, defaultValue = "5") int size,
+            @RequestParam(value = "sortBy", required = false, defaultValue = "name,asc") String sortBy,
+            @RequestParam(value = "after", required = false) String after) {
+        if (after != null) {
+            return BaseController.cursorResponse(tagsService.readAllAfter(after, size, sortBy));
+        }
+        return ResponseEntity.ok(tagsService.readAll(page, size, sortBy));
+    }
 
+    @GetMapping("/search")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiOperation(value = "Search tags by name", notes = "Case-insensitive substring or similar-spelling match, most similar first", response = List.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Successfully searched tags"),
+            @ApiResponse(code = 400, message = "Invalid request from the client"),
+            @ApiResponse(code = 500, message = "Internal server error")
+    })
+    public List<TagDtoResponse> searchByName(
+            @RequestParam(value = "name") String name,
+            @RequestParam(value = "page", required = false, defaultValue = "0") int page,
+            @RequestParam(value = "size", required = false, defaultValue = "5") int size) {
+        return tagsService.searchByName(name, page, size);
     }
 
     @Override
@@ -62,10 +87,14 @@ public class TagsController implements BaseController<TagDtoRequest, TagDtoRespo
             @ApiResponse(code = 404, message = "Resource is not found"),
             @ApiResponse(code = 500, message = "Internal server error")
     })
-    public EntityModel<TagDtoResponse> readById(@CommandParam("tagId") @PathVariable Long id) {
-        EntityModel<TagDtoResponse> model = EntityModel.of(tagsService.readById(id));
+    public ResponseEntity<EntityModel<TagDtoResponse>> readById(@CommandParam("tagId") @PathVariable Long id, WebRequest request) {
+        TagDtoResponse response = tagsService.readById(id);
+        if (response.version() != null && request.checkNotModified(response.version().toString())) {
+            return null;
+        }
+        EntityModel<TagDtoResponse> model = EntityModel.of(response);
         LinkHelper.addLinkToTags(model);
-        return model;
+        return BaseController.versioned(model, response.version());
     }
 
     @Override
@@ -97,12 +126,18 @@ public class TagsController implements BaseController<TagDtoRequest, TagDtoRespo
             @ApiResponse(code = 401, message = "User is unauthorised"),
             @ApiResponse(code = 403, message = "User don`t have permission to access."),
             @ApiResponse(code = 404, message = "Resource is not found"),
+            @ApiResponse(code = 409, message = "Resource was modified by another request"),
             @ApiResponse(code = 500, message = "Internal server error")
     })
-    public EntityModel<TagDtoResponse> update(@PathVariable Long id, @RequestBody TagDtoRequest updateRequest) {
-        EntityModel<TagDtoResponse> model = EntityModel.of(tagsService.update(id, updateRequest));
+    public ResponseEntity<EntityModel<TagDtoResponse>> update(@PathVariable Long id, @RequestBody TagDtoRequest updateRequest,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = BaseController.expectedVersion(ifMatch);
+        TagDtoResponse response = expectedVersion == null
+                ? optimisticRetry.run(() -> tagsService.update(id, updateRequest))
+                : tagsService.update(id, updateRequest, expectedVersion);
+        EntityModel<TagDtoResponse> model = EntityModel.of(response);
         LinkHelper.addLinkToTags(model);
-        return model;
+        return BaseController.versioned(model, response.version());
     }
 
     @Override
@@ -0,0 +1,57 @@
+package com.mjc.school.config;
+
+import com.mjc.school.model.Tag;
+import com.mjc.school.repository.impl.AuthorRepository;
+import com.mjc.school.repository.impl.TagRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Runs against the schema as Hibernate and the spring.sql.init scripts leave it, with no manual setup. */
+@SpringBootTest
+@Transactional
+class StartupSchemaTest {
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void trigramSearch_ShouldWorkOnTheStartupSchema() {
+        tagRepository.create(new Tag(null, null, "startup-schema-trigram", new ArrayList<>()));
+        entityManager.flush();
+
+        assertThat(tagRepository.searchByName("schema-trigr", 0, 10))
+                .extracting(Tag::getName)
+                .contains("startup-schema-trigram");
+        assertThat(authorRepository.searchByName("startup-schema", 0, 10)).isNotNull();
+        assertThat(indexExists("idx_tags_name_trgm")).isTrue();
+        assertThat(indexExists("idx_author_name_trgm")).isTrue();
+    }
+
+    @Test
+    void fullTextIndex_ShouldExistOnTheStartupSchema() {
+        assertThat(indexExists("idx_news_search_vector")).isTrue();
+    }
+
+    private boolean indexExists(String name) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_indexes WHERE indexname = ?)", Boolean.class, name));
+    }
+}
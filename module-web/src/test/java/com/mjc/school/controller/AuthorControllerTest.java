@@ -39,7 +39,7 @@ class AuthorControllerTest {
     @Test
     @WithMockUser(roles = "USER")
     void readAll_shouldReturnListOfAuthors() throws Exception {
-        AuthorDtoResponse response = new AuthorDtoResponse(1L, "Test Author", "", "");
+        AuthorDtoResponse response = new AuthorDtoResponse(1L, "Test Author", "", "", 1L);
         Mockito.when(authorService.readAll(0, 5, "name,dsc"))
                 .thenReturn(Collections.singletonList(response));
 
@@ -57,7 +57,7 @@ class AuthorControllerTest {
     @Test
     @WithMockUser
     void readById_shouldReturnAuthor() throws Exception {
-        AuthorDtoResponse response = new AuthorDtoResponse(1L, "Author One", "", "");
+        AuthorDtoResponse response = new AuthorDtoResponse(1L, "Author One", "", "", 1L);
 
         Mockito.when(authorService.readById(1L)).thenReturn(response);
 
@@ -73,7 +73,7 @@ class AuthorControllerTest {
     @Test
     @WithMockUser(roles = "ADMIN")
     void create_shouldReturnCreatedAuthor() throws Exception {
-        AuthorDtoResponse response = new AuthorDtoResponse(2L, "New Author", "", "");
+        AuthorDtoResponse response = new AuthorDtoResponse(2L, "New Author", "", "", 1L);
 
         Mockito.when(authorService.create(any(AuthorDtoRequest.class))).thenReturn(response);
 
@@ -91,7 +91,7 @@ class AuthorControllerTest {
     @Test
     @WithMockUser(roles = "ADMIN")
     void update_shouldReturnUpdatedAuthor() throws Exception {
-        AuthorDtoResponse response = new AuthorDtoResponse(1L, "Updated Author", "", "");
+        AuthorDtoResponse response = new AuthorDtoResponse(1L, "Updated Author", "", "", 1L);
 
         Mockito.when(authorService.update(eq(1L), any(AuthorDtoRequest.class))).thenReturn(response);
 
@@ -2,6 +2,7 @@ package com.mjc.school.controller;
 
 import com.mjc.school.dto.CommentDtoRequest;
 import com.mjc.school.dto.CommentDtoResponse;
+import com.mjc.school.dto.ValidatorDtoResponse;
 import com.mjc.school.service.CommentService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -9,20 +10,24 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
 import java.util.Collections;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -40,7 +45,7 @@ class CommentControllerTest {
     @WithMockUser(roles = "USER")
     void readAll_shouldReturnListOfComments() throws Exception {
         CommentDtoResponse response =
-                new CommentDtoResponse(1L, "First Comment", "", "", 1L);
+                new CommentDtoResponse(1L, "First Comment", "", "", 1L, 1L);
         Mockito.when(commentService.readAll(0, 5, "created,dsc"))
                 .thenReturn(Collections.singletonList(response));
 
@@ -59,23 +64,36 @@ class CommentControllerTest {
     @WithMockUser
     void readById_shouldReturnComment() throws Exception {
         CommentDtoResponse response =
-                new CommentDtoResponse(1L, "Test Comment", "", "", 1L);
+                new CommentDtoResponse(1L, "Test Comment", "", "", 1L, 1L);
 
+        Mockito.when(commentService.readValidator(1L)).thenReturn(new ValidatorDtoResponse("1", Instant.parse("2025-01-02T00:00:00Z")));
         Mockito.when(commentService.readById(1L)).thenReturn(response);
 
         mockMvc.perform(get("/api/v1/comment/{id}", 1))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.content").value("Test Comment"));
 
         verify(commentService).readById(1L);
     }
 
+    @Test
+    @WithMockUser
+    void readById_notModifiedSince_shouldReturnNotModifiedWithoutReadingComment() throws Exception {
+        Mockito.when(commentService.readValidator(1L)).thenReturn(new ValidatorDtoResponse("1", Instant.parse("2025-01-02T00:00:00Z")));
+
+        mockMvc.perform(get("/api/v1/comment/{id}", 1).header(HttpHeaders.IF_MODIFIED_SINCE, "Thu, 02 Jan 2025 00:00:00 GMT"))
+                .andExpect(status().isNotModified());
+
+        verify(commentService, never()).readById(any());
+    }
+
     @Test
     @WithMockUser(roles = {"ADMIN", "USER"})
     void create_shouldReturnCreatedComment() throws Exception {
         CommentDtoResponse response =
-                new CommentDtoResponse(2L, "New Comment", "", "", 1L);
+                new CommentDtoResponse(2L, "New Comment", "", "", 1L, 1L);
 
         Mockito.when(commentService.create(any(CommentDtoRequest.class)))
                 .thenReturn(response);
@@ -94,7 +112,7 @@ class CommentControllerTest {
     @WithMockUser(roles = "ADMIN")
     void update_shouldReturnUpdatedComment() throws Exception {
         CommentDtoResponse response =
-                new CommentDtoResponse(1L, "Updated Comment", "", "", 1L);
+                new CommentDtoResponse(1L, "Updated Comment", "", "", 1L, 1L);
 
         Mockito.when(commentService.update(eq(1L), any(CommentDtoRequest.class)))
                 .thenReturn(response);
@@ -1,37 +1,55 @@
 package com.mjc.school.controller;
 
 import com.mjc.school.dto.AuthorDtoResponse;
+import com.mjc.school.dto.AuthorNewsCountDtoResponse;
 import com.mjc.school.dto.CommentDtoResponse;
+import com.mjc.school.dto.ImportErrorDtoResponse;
+import com.mjc.school.dto.ImportProgressDtoResponse;
 import com.mjc.school.dto.NewsDtoRequest;
 import com.mjc.school.dto.NewsDtoResponse;
 import com.mjc.school.dto.NewsPageDtoResponse;
 import com.mjc.school.dto.TagDtoResponse;
+import com.mjc.school.dto.ValidatorDtoResponse;
+import com.mjc.school.repository.NewsSearchMode;
 import com.mjc.school.service.AuthorService;
 import com.mjc.school.service.CommentService;
+import com.mjc.school.service.NewsETag;
 import com.mjc.school.service.NewsService;
 import com.mjc.school.service.TagService;
+import com.mjc.school.service.importing.BulkImportService;
+import com.mjc.school.service.importing.ImportFormat;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -53,14 +71,18 @@ class NewsControllerTest {
     @MockBean
     private CommentService commentService;
 
+    @MockBean
+    private BulkImportService bulkImportService;
+
     @Test
     @WithMockUser(roles = "USER")
     void readAll_shouldReturnNewsPage() throws Exception {
         NewsDtoResponse news = new NewsDtoResponse(
                 1L, "Title", "Content", "2025-01-01", "2025-01-02",
-                new AuthorDtoResponse(1L, "Author", "", ""),
+                new AuthorDtoResponse(1L, "Author", "", "", 1L),
+                Collections.emptyList(),
                 Collections.emptyList(),
-                Collections.emptyList()
+                1L
         );
         NewsPageDtoResponse response = new NewsPageDtoResponse(List.of(news), 1);
 
@@ -82,28 +104,65 @@ class NewsControllerTest {
     void readById_shouldReturnNews() throws Exception {
         NewsDtoResponse response = new NewsDtoResponse(
                 1L, "Title", "Content", "2025-01-01", "2025-01-02",
-                new AuthorDtoResponse(1L, "Author", "", ""),
+                new AuthorDtoResponse(1L, "Author", "", "", 1L),
                 Collections.emptyList(),
-                Collections.emptyList()
+                Collections.emptyList(),
+                1L
         );
+        String eTag = NewsETag.of(response);
+        Mockito.when(newsService.readValidator(1L)).thenReturn(new ValidatorDtoResponse(eTag, Instant.parse("2025-01-02T00:00:00Z")));
         Mockito.when(newsService.readById(1L)).thenReturn(response);
 
         mockMvc.perform(get("/api/v1/news/{id}", 1))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + eTag + "\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.title", is("Title")));
 
         verify(newsService).readById(1L);
     }
 
+    @Test
+    @WithMockUser
+    void readById_acceptingHal_shouldAnswerHalJson() throws Exception {
+        NewsDtoResponse response = new NewsDtoResponse(
+                3L, "Title", "Content", "2025-01-01", "2025-01-02",
+                new AuthorDtoResponse(1L, "Author", "", "", 1L),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                1L
+        );
+        Mockito.when(newsService.readValidator(3L)).thenReturn(new ValidatorDtoResponse(NewsETag.of(response), null));
+        Mockito.when(newsService.readById(3L)).thenReturn(response);
+
+        mockMvc.perform(get("/api/v1/news/{id}", 3).accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaTypes.HAL_JSON_VALUE))
+                .andExpect(jsonPath("$.id", is(3)));
+    }
+
+    @Test
+    @WithMockUser
+    void readById_withMatchingIfNoneMatch_shouldReturnNotModifiedWithoutReadingNews() throws Exception {
+        Mockito.when(newsService.readValidator(1L)).thenReturn(new ValidatorDtoResponse("1-3e", Instant.parse("2025-01-02T00:00:00Z")));
+
+        mockMvc.perform(get("/api/v1/news/{id}", 1).header(HttpHeaders.IF_NONE_MATCH, "\"1-3e\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3e\""));
+
+        verify(newsService, never()).readById(any());
+    }
+
     @Test
     @WithMockUser(roles = {"ADMIN", "USER"})
     void create_shouldReturnCreatedNews() throws Exception {
         NewsDtoResponse response = new NewsDtoResponse(
                 2L, "New Title", "New Content", "2025-01-01", "2025-01-02",
-                new AuthorDtoResponse(1L, "Author", "", ""),
+                new AuthorDtoResponse(1L, "Author", "", "", 1L),
+                Collections.emptyList(),
                 Collections.emptyList(),
-                Collections.emptyList()
+                1L
         );
         Mockito.when(newsService.create(any(NewsDtoRequest.class))).thenReturn(response);
 
@@ -122,9 +181,10 @@ class NewsControllerTest {
     void update_shouldReturnUpdatedNews() throws Exception {
         NewsDtoResponse response = new NewsDtoResponse(
                 1L, "Updated Title", "Updated Content", "2025-01-01", "2025-01-02",
-                new AuthorDtoResponse(1L, "Author", "", ""),
+                new AuthorDtoResponse(1L, "Author", "", "", 1L),
                 Collections.emptyList(),
-                Collections.emptyList()
+                Collections.emptyList(),
+                1L
         );
         Mockito.when(newsService.update(eq(1L), any(NewsDtoRequest.class))).thenReturn(response);
 
@@ -132,6 +192,7 @@ class NewsControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("{\"title\":\"Updated Title\",\"content\":\"Updated Content\",\"authorId\":1}"))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + NewsETag.of(response) + "\""))
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.title", is("Updated Title")));
 
@@ -147,16 +208,95 @@ class NewsControllerTest {
         verify(newsService).deleteById(1L);
     }
 
+    @Test
+    @WithMockUser
+    void getAuthors_shouldReturnAuthorsWithNewsCountAndCacheHeader() throws Exception {
+        Mockito.when(authorService.readAuthorsWithNews(0, 10))
+                .thenReturn(List.of(new AuthorNewsCountDtoResponse(1L, "Author", "", "", 3)));
+
+        mockMvc.perform(get("/api/v1/news/authors")
+                        .param("page", "0")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=30"))
+                .andExpect(jsonPath("$[0].name", is("Author")))
+                .andExpect(jsonPath("$[0].newsCount", is(3)));
+
+        verify(authorService, never()).readAuthorByNewsId(any());
+    }
+
+    @Test
+    @WithMockUser
+    void exportAll_shouldStreamNewsAsNdjson() throws Exception {
+        NewsDtoResponse first = new NewsDtoResponse(1L, "First", "Content", "2025-01-01", "2025-01-02",
+                new AuthorDtoResponse(1L, "Author", "", "", 1L), Collections.emptyList(), Collections.emptyList(), 1L);
+        NewsDtoResponse second = new NewsDtoResponse(2L, "Second", "Content", "2025-01-01", "2025-01-02",
+                new AuthorDtoResponse(1L, "Author", "", "", 1L), Collections.emptyList(), Collections.emptyList(), 1L);
+        Mockito.doAnswer(invocation -> {
+            Consumer<NewsDtoResponse> consumer = invocation.getArgument(0);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).when(newsService).exportAll(any());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/news/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"title\":\"First\"");
+        assertThat(lines[1]).contains("\"title\":\"Second\"");
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void importNews_shouldStreamProgressAsNdjson() throws Exception {
+        Mockito.doAnswer(invocation -> {
+            Consumer<ImportProgressDtoResponse> progress = invocation.getArgument(2);
+            progress.accept(new ImportProgressDtoResponse(2, 1, 1, List.of(new ImportErrorDtoResponse(2, "Malformed JSON")), false));
+            progress.accept(new ImportProgressDtoResponse(2, 1, 1, List.of(), true));
+            return null;
+        }).when(bulkImportService).importNews(any(), eq(ImportFormat.CSV), any());
+
+        MvcResult result = mockMvc.perform(post("/api/v1/news/import")
+                        .contentType("text/csv")
+                        .content("title,content,authorName,tagNames\n"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"line\":2");
+        assertThat(lines[1]).contains("\"done\":true");
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void importNews_withUserRole_shouldReturnForbidden() throws Exception {
+        mockMvc.perform(post("/api/v1/news/import")
+                        .contentType("application/x-ndjson")
+                        .content("{}\n"))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     @WithMockUser
     void search_shouldReturnNewsList() throws Exception {
         NewsDtoResponse news = new NewsDtoResponse(
                 3L, "Search Title", "Search Content", "2025-01-01", "2025-01-02",
-                new AuthorDtoResponse(1L, "Author", "", ""),
+                new AuthorDtoResponse(1L, "Author", "", "", 1L),
+                Collections.emptyList(),
                 Collections.emptyList(),
-                Collections.emptyList()
+                1L
         );
-        Mockito.when(newsService.readListOfNewsByParams(List.of("tag"), List.of(1L), "author", "Search Title", "Search Content"))
+        Mockito.when(newsService.readListOfNewsByParams(List.of("tag"), List.of(1L), "author", "Search Title", "Search Content", NewsSearchMode.FULL_TEXT, 1, 10, "title,asc"))
                 .thenReturn(List.of(news));
 
         mockMvc.perform(get("/api/v1/news/search")
@@ -164,17 +304,21 @@ class NewsControllerTest {
                         .param("tag_id", "1")
                         .param("author_name", "author")
                         .param("title", "Search Title")
-                        .param("content", "Search Content"))
+                        .param("content", "Search Content")
+                        .param("mode", "FULL_TEXT")
+                        .param("page", "1")
+                        .param("size", "10")
+                        .param("sortBy", "title,asc"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].title", is("Search Title")));
 
-        verify(newsService).readListOfNewsByParams(List.of("tag"), List.of(1L), "author", "Search Title", "Search Content");
+        verify(newsService).readListOfNewsByParams(List.of("tag"), List.of(1L), "author", "Search Title", "Search Content", NewsSearchMode.FULL_TEXT, 1, 10, "title,asc");
     }
 
     @Test
     @WithMockUser
     void readTagsByNewsId_shouldReturnTags() throws Exception {
-        TagDtoResponse tag = new TagDtoResponse(1L, "Tag1");
+        TagDtoResponse tag = new TagDtoResponse(1L, "Tag1", 1L);
         Mockito.when(tagService.readListOfTagsByNewsId(1L)).thenReturn(List.of(tag));
 
         mockMvc.perform(get("/api/v1/news/{id}/tag", 1))
@@ -188,7 +332,7 @@ class NewsControllerTest {
     @Test
     @WithMockUser
     void readAuthorByNewsId_shouldReturnAuthor() throws Exception {
-        AuthorDtoResponse author = new AuthorDtoResponse(1L, "Author Name", "", "");
+        AuthorDtoResponse author = new AuthorDtoResponse(1L, "Author Name", "", "", 1L);
         Mockito.when(authorService.readAuthorByNewsId(1L)).thenReturn(author);
 
         mockMvc.perform(get("/api/v1/news/{id}/author", 1))
@@ -202,7 +346,7 @@ class NewsControllerTest {
     @Test
     @WithMockUser
     void readCommentsByNewsId_shouldReturnComments() throws Exception {
-        CommentDtoResponse comment = new CommentDtoResponse(1L, "Comment Content", "2025-01-01", "2025-01-02", 1L);
+        CommentDtoResponse comment = new CommentDtoResponse(1L, "Comment Content", "2025-01-01", "2025-01-02", 1L, 1L);
         Mockito.when(commentService.readListOfCommentsByNewsId(1L)).thenReturn(List.of(comment));
 
         mockMvc.perform(get("/api/v1/news/{id}/comment", 1))
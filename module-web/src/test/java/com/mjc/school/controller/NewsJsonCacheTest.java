@@ -0,0 +1,145 @@
+package com.mjc.school.controller;
+
+import com.mjc.school.dto.AuthorDtoResponse;
+import com.mjc.school.dto.CommentDtoResponse;
+import com.mjc.school.dto.NewsDtoResponse;
+import com.mjc.school.dto.NewsPageDtoResponse;
+import com.mjc.school.dto.TagDtoResponse;
+import com.mjc.school.service.NewsETag;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NewsJsonCacheTest {
+    private final MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
+    private NewsJsonCache cache;
+
+    @BeforeEach
+    void setUp() {
+        RequestMappingHandlerAdapter adapter = new RequestMappingHandlerAdapter();
+        adapter.setMessageConverters(List.of(converter));
+        cache = new NewsJsonCache(new StaticListableBeanFactory(Map.of("handlerAdapter", adapter))
+                .getBeanProvider(RequestMappingHandlerAdapter.class), DataSize.ofMegabytes(1));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void page_ShouldSpliceItemsIntoTheSameBytesAsAFullWrite() throws Exception {
+        NewsPageDtoResponse page = new NewsPageDtoResponse(List.of(news(1L, "First"), news(2L, "Second \"quoted\"")), 2, "cursor");
+
+        String first = new String(cache.page(page, MediaType.APPLICATION_JSON), StandardCharsets.UTF_8);
+        String second = new String(cache.page(page, MediaType.APPLICATION_JSON), StandardCharsets.UTF_8);
+
+        assertThat(first).isEqualTo(fullWrite(page));
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    void page_ShouldWriteAnEmptyPageAndRewriteAChangedItem() throws Exception {
+        NewsPageDtoResponse empty = new NewsPageDtoResponse(List.of(), 0, null);
+        assertThat(new String(cache.page(empty, MediaType.APPLICATION_JSON), StandardCharsets.UTF_8)).isEqualTo(fullWrite(empty));
+
+        cache.page(new NewsPageDtoResponse(List.of(news(1L, "Before")), 1), MediaType.APPLICATION_JSON);
+        NewsPageDtoResponse changed = new NewsPageDtoResponse(List.of(news(1L, "After")), 1);
+
+        assertThat(new String(cache.page(changed, MediaType.APPLICATION_JSON), StandardCharsets.UTF_8))
+                .isEqualTo(fullWrite(changed))
+                .doesNotContain("Before");
+    }
+
+    @Test
+    void detail_ShouldBeReusedWhileTheValidatorMatches() {
+        NewsDtoResponse news = news(1L, "Title");
+        AtomicInteger reads = new AtomicInteger();
+        Supplier<EntityModel<NewsDtoResponse>> model = () -> {
+            reads.incrementAndGet();
+            return EntityModel.of(news);
+        };
+
+        NewsJsonCache.Detail first = cache.detail(1L, MediaType.APPLICATION_JSON, NewsETag.of(news), model);
+        NewsJsonCache.Detail second = cache.detail(1L, MediaType.APPLICATION_JSON, NewsETag.of(news), model);
+        cache.detail(1L, MediaType.APPLICATION_JSON, "2-changed", model);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.eTag()).isEqualTo(NewsETag.of(news));
+        assertThat(reads).hasValue(2);
+    }
+
+    @Test
+    void detail_ShouldNotKeepANewsOlderThanTheValidator() {
+        NewsDtoResponse stale = news(1L, "Stale");
+        AtomicInteger reads = new AtomicInteger();
+        Supplier<EntityModel<NewsDtoResponse>> model = () -> {
+            reads.incrementAndGet();
+            return EntityModel.of(stale);
+        };
+
+        NewsJsonCache.Detail detail = cache.detail(1L, MediaType.APPLICATION_JSON, "2-newer", model);
+        cache.detail(1L, MediaType.APPLICATION_JSON, "2-newer", model);
+
+        assertThat(detail.eTag()).isEqualTo(NewsETag.of(stale));
+        assertThat(reads).hasValue(2);
+    }
+
+    @Test
+    void evict_ShouldDropTheDetail() {
+        NewsDtoResponse news = news(1L, "Title");
+        AtomicInteger reads = new AtomicInteger();
+        Supplier<EntityModel<NewsDtoResponse>> model = () -> {
+            reads.incrementAndGet();
+            return EntityModel.of(news);
+        };
+
+        cache.detail(1L, MediaType.APPLICATION_JSON, NewsETag.of(news), model);
+        cache.evict(1L);
+        cache.detail(1L, MediaType.APPLICATION_JSON, NewsETag.of(news), model);
+
+        assertThat(reads).hasValue(2);
+    }
+
+    @Test
+    void negotiate_ShouldFollowTheAcceptHeader() {
+        assertThat(NewsJsonCache.negotiate(null)).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(NewsJsonCache.negotiate("*/*")).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(NewsJsonCache.negotiate("not a media type")).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(NewsJsonCache.negotiate("application/hal+json")).isEqualTo(MediaTypes.HAL_JSON);
+        assertThat(NewsJsonCache.negotiate("application/*+json")).isEqualTo(MediaTypes.HAL_JSON);
+        assertThat(NewsJsonCache.negotiate("application/hal+json;q=0.5, application/json")).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(NewsJsonCache.negotiate("application/json;q=0.5, application/hal+json")).isEqualTo(MediaTypes.HAL_JSON);
+    }
+
+    private String fullWrite(NewsPageDtoResponse page) throws Exception {
+        return converter.getObjectMapper().writeValueAsString(EntityModel.of(page));
+    }
+
+    private static NewsDtoResponse news(Long id, String title) {
+        return new NewsDtoResponse(id, title, "Content", "2025-01-01", "2025-01-02",
+                new AuthorDtoResponse(1L, "Author", "", "", 1L),
+                List.of(new TagDtoResponse(3L, "tag", 1L)),
+                List.of(new CommentDtoResponse(4L, "Comment", "2025-01-01", "2025-01-01", id, 1L)),
+                1L);
+    }
+}
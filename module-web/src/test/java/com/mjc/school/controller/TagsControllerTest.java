@@ -1,7 +1,9 @@
 package com.mjc.school.controller;
 
+import com.mjc.school.dto.CursorPageDtoResponse;
 import com.mjc.school.dto.TagDtoRequest;
 import com.mjc.school.dto.TagDtoResponse;
+import com.mjc.school.model.Tag;
 import com.mjc.school.service.TagService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -9,7 +11,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -18,11 +22,14 @@ import java.util.Collections;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -39,7 +46,7 @@ class TagsControllerTest {
     @Test
     @WithMockUser(roles = "USER")
     void readAll_shouldReturnListOfTags() throws Exception {
-        TagDtoResponse tag = new TagDtoResponse(1L, "Tag1");
+        TagDtoResponse tag = new TagDtoResponse(1L, "Tag1", 1L);
         Mockito.when(tagService.readAll(0, 5, "name,asc"))
                 .thenReturn(Collections.singletonList(tag));
 
@@ -54,10 +61,28 @@ class TagsControllerTest {
         verify(tagService).readAll(0, 5, "name,asc");
     }
 
+    @Test
+    @WithMockUser(roles = "USER")
+    void readAll_withCursor_shouldReturnNextCursorHeader() throws Exception {
+        TagDtoResponse tag = new TagDtoResponse(1L, "Tag1", 1L);
+        Mockito.when(tagService.readAllAfter("", 5, "name,asc"))
+                .thenReturn(new CursorPageDtoResponse<>(Collections.singletonList(tag), "next"));
+
+        mockMvc.perform(get("/api/v1/tag")
+                        .param("after", "")
+                        .param("size", "5")
+                        .param("sortBy", "name,asc"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BaseController.NEXT_CURSOR_HEADER, "next"))
+                .andExpect(jsonPath("$[0].name", is("Tag1")));
+
+        verify(tagService).readAllAfter("", 5, "name,asc");
+    }
+
     @Test
     @WithMockUser
     void readById_shouldReturnTag() throws Exception {
-        TagDtoResponse tag = new TagDtoResponse(1L, "TagOne");
+        TagDtoResponse tag = new TagDtoResponse(1L, "TagOne", 1L);
         Mockito.when(tagService.readById(1L)).thenReturn(tag);
 
         mockMvc.perform(get("/api/v1/tag/{id}", 1))
@@ -71,7 +96,7 @@ class TagsControllerTest {
     @Test
     @WithMockUser(roles = {"ADMIN", "USER"})
     void create_shouldReturnCreatedTag() throws Exception {
-        TagDtoResponse tag = new TagDtoResponse(2L, "NewTag");
+        TagDtoResponse tag = new TagDtoResponse(2L, "NewTag", 1L);
         Mockito.when(tagService.create(any(TagDtoRequest.class))).thenReturn(tag);
 
         mockMvc.perform(post("/api/v1/tag")
@@ -88,7 +113,7 @@ class TagsControllerTest {
     @Test
     @WithMockUser(roles = "ADMIN")
     void update_shouldReturnUpdatedTag() throws Exception {
-        TagDtoResponse tag = new TagDtoResponse(1L, "UpdatedTag");
+        TagDtoResponse tag = new TagDtoResponse(1L, "UpdatedTag", 1L);
         Mockito.when(tagService.update(eq(1L), any(TagDtoRequest.class))).thenReturn(tag);
 
         mockMvc.perform(patch("/api/v1/tag/{id}", 1)
@@ -101,6 +126,64 @@ class TagsControllerTest {
         verify(tagService).update(eq(1L), any(TagDtoRequest.class));
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void update_withIfMatch_shouldUpdateThatVersionAndReturnNewETag() throws Exception {
+        TagDtoResponse tag = new TagDtoResponse(1L, "UpdatedTag", 4L);
+        Mockito.when(tagService.update(eq(1L), any(TagDtoRequest.class), eq(3L))).thenReturn(tag);
+
+        mockMvc.perform(patch("/api/v1/tag/{id}", 1)
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"UpdatedTag\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+
+        verify(tagService).update(eq(1L), any(TagDtoRequest.class), eq(3L));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void update_withStaleIfMatch_shouldReturnConflict() throws Exception {
+        Mockito.when(tagService.update(eq(1L), any(TagDtoRequest.class), eq(2L)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Tag.class, 1L));
+
+        mockMvc.perform(patch("/api/v1/tag/{id}", 1)
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"UpdatedTag\"}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void update_withWeakIfMatch_shouldFailPrecondition() throws Exception {
+        mockMvc.perform(patch("/api/v1/tag/{id}", 1)
+                        .header(HttpHeaders.IF_MATCH, "W/\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"UpdatedTag\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(tagService, never()).update(eq(1L), any(TagDtoRequest.class), any(Long.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void update_withoutIfMatch_shouldRetryLostRace() throws Exception {
+        TagDtoResponse tag = new TagDtoResponse(1L, "UpdatedTag", 5L);
+        Mockito.when(tagService.update(eq(1L), any(TagDtoRequest.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Tag.class, 1L))
+                .thenReturn(tag);
+
+        mockMvc.perform(patch("/api/v1/tag/{id}", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"UpdatedTag\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5\""));
+
+        verify(tagService, times(2)).update(eq(1L), any(TagDtoRequest.class));
+    }
+
 
     @Test
     @WithMockUser(roles = "ADMIN")
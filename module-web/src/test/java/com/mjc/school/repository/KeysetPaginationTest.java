@@ -0,0 +1,64 @@
+package com.mjc.school.repository;
+
+import com.mjc.school.model.Author;
+import com.mjc.school.repository.impl.AuthorRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class KeysetPaginationTest {
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void readAllAfter_ShouldPageThroughRowsWithANullSortKey() {
+        Long dated = persistAuthor("keyset-dated");
+        Long undatedFirst = persistAuthor("keyset-undated-1");
+        Long undatedSecond = persistAuthor("keyset-undated-2");
+        entityManager.createQuery("UPDATE Author a SET a.createDate = null WHERE a.id IN :ids")
+                .setParameter("ids", List.of(undatedFirst, undatedSecond))
+                .executeUpdate();
+        entityManager.clear();
+
+        List<Long> ascending = readAllIds("createDate,asc");
+        List<Long> descending = readAllIds("createDate,desc");
+
+        assertThat(ascending).containsSubsequence(dated, undatedFirst, undatedSecond)
+                .filteredOn(List.of(dated, undatedFirst, undatedSecond)::contains).hasSize(3);
+        assertThat(descending).containsSubsequence(undatedSecond, undatedFirst, dated)
+                .filteredOn(List.of(dated, undatedFirst, undatedSecond)::contains).hasSize(3);
+    }
+
+    private Long persistAuthor(String name) {
+        Author author = new Author();
+        author.setName(name);
+        authorRepository.create(author);
+        entityManager.flush();
+        return author.getId();
+    }
+
+    private List<Long> readAllIds(String sortBy) {
+        List<Long> ids = new ArrayList<>();
+        String after = null;
+        do {
+            KeysetPage<Author> page = authorRepository.readAllAfter(after, 2, sortBy);
+            page.content().forEach(author -> ids.add(author.getId()));
+            after = page.nextCursor();
+        } while (after != null);
+        return ids;
+    }
+}